@@ -0,0 +1,47 @@
+package com.hostel.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for read-mostly views shared by every request. Implementations are either
+ * in-process ({@link LocalHostelCache}) or shared by all replicas through Redis
+ * ({@link RedisHostelCache}); app.cache.type selects one. Cached values must be treated as read-only.
+ */
+public interface HostelCache {
+
+    String ROOMS = "rooms";
+
+    String ROOM_DETAILS = "room-details";
+
+    String FOOD_MENU = "food-menu";
+
+    String WARDEN_CONTACT = "warden-contact";
+
+    /**
+     * Returns the cached value, or loads, caches and returns it. A null from the loader is not cached
+     * and exceptions from it propagate. The type is used to read values back from a shared tier.
+     */
+    <T> T get(String cacheName, String key, TypeReference<T> type, Supplier<T> loader);
+
+    void evict(String cacheName, String key);
+
+    void evictAll(String cacheName);
+
+    // Evicts once the surrounding transaction commits, or right away outside one
+    default void evictAfterCommit(String cacheName, String key) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cacheName, key);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(cacheName, key);
+            }
+        });
+    }
+}
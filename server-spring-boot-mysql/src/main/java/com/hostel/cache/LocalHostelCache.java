@@ -0,0 +1,57 @@
+package com.hostel.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostel.config.HostelCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process Caffeine caches, one per cache name with its configured TTL. Needs no external service,
+ * so it is the default and what tests run against; with several replicas each keeps its own copy and
+ * only sees another replica's changes once the TTL expires.
+ */
+public class LocalHostelCache extends AbstractHostelCache {
+
+    private final HostelCacheProperties properties;
+
+    private final Map<String, Cache<String, Object>> caches = new ConcurrentHashMap<>();
+
+    public LocalHostelCache(HostelCacheProperties properties, MeterRegistry meterRegistry) {
+        super(meterRegistry, properties.getCoalesceWindow());
+        this.properties = properties;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T lookup(String cacheName, String key, TypeReference<T> type) {
+        return (T) cacheFor(cacheName).getIfPresent(key);
+    }
+
+    @Override
+    protected void store(String cacheName, String key, Object value) {
+        cacheFor(cacheName).put(key, value);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        cancelLoads(cacheName, key);
+        cacheFor(cacheName).invalidate(key);
+    }
+
+    @Override
+    public void evictAll(String cacheName) {
+        cancelLoads(cacheName, ALL_KEYS);
+        cacheFor(cacheName).invalidateAll();
+    }
+
+    private Cache<String, Object> cacheFor(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.ttlFor(name))
+            .build());
+    }
+}
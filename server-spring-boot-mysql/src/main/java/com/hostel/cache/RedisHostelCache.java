@@ -0,0 +1,171 @@
+package com.hostel.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hostel.config.HostelCacheProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Cache tier shared by all replicas: values are stored in Redis as JSON with the cache's TTL, so a
+ * view computed by one replica serves the others. Each replica also keeps a short-lived in-process
+ * copy in front of Redis. An eviction deletes the Redis keys and is published on the invalidation
+ * channel, and every replica drops its in-process copy when the message arrives. If Redis is
+ * unreachable, reads fall through to the loader and the application keeps serving from the database.
+ */
+public class RedisHostelCache extends AbstractHostelCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisHostelCache.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final HostelCacheProperties properties;
+
+    // "cacheName:key" -> value
+    private final Cache<String, Object> nearCache;
+
+    private final AtomicBoolean redisHealthy = new AtomicBoolean(true);
+
+    public RedisHostelCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper, HostelCacheProperties properties, MeterRegistry meterRegistry) {
+        super(meterRegistry, properties.getCoalesceWindow());
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.nearCache = Caffeine.newBuilder()
+            .maximumSize(properties.getMaximumSize())
+            .expireAfterWrite(properties.getNearCacheTtl())
+            .build();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected <T> T lookup(String cacheName, String key, TypeReference<T> type) {
+        String nearKey = cacheName + ":" + key;
+        Object near = nearCache.getIfPresent(nearKey);
+        if (near != null) {
+            return (T) near;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(cacheName, key));
+            redisAvailable();
+            if (json == null) {
+                return null;
+            }
+            T value = objectMapper.readValue(json, type);
+            nearCache.put(nearKey, value);
+            return value;
+        } catch (Exception e) {
+            redisFailed("read", e);
+            return null;
+        }
+    }
+
+    @Override
+    protected void store(String cacheName, String key, Object value) {
+        nearCache.put(cacheName + ":" + key, value);
+        try {
+            redisTemplate.opsForValue().set(redisKey(cacheName, key), objectMapper.writeValueAsString(value), properties.ttlFor(cacheName));
+            redisAvailable();
+        } catch (Exception e) {
+            redisFailed("write", e);
+        }
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        evictNear(cacheName, key);
+        try {
+            redisTemplate.delete(redisKey(cacheName, key));
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), cacheName + "\n" + key);
+            redisAvailable();
+        } catch (Exception e) {
+            redisFailed("evict", e);
+        }
+    }
+
+    @Override
+    public void evictAll(String cacheName) {
+        evictNear(cacheName, ALL_KEYS);
+        try {
+            List<String> keys = new ArrayList<>();
+            ScanOptions options = ScanOptions.scanOptions().match(redisKey(cacheName, ALL_KEYS)).count(500).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                cursor.forEachRemaining(keys::add);
+            }
+            if (!keys.isEmpty()) {
+                redisTemplate.delete(keys);
+            }
+            redisTemplate.convertAndSend(properties.getInvalidationChannel(), cacheName + "\n" + ALL_KEYS);
+            redisAvailable();
+        } catch (Exception e) {
+            redisFailed("evict", e);
+        }
+    }
+
+    /**
+     * Handles a message from the invalidation channel, including this replica's own.
+     */
+    public void onInvalidation(String message) {
+        int separator = message.indexOf('\n');
+        if (separator < 0) {
+            logger.warn("Ignoring malformed cache invalidation message: {}", message);
+            return;
+        }
+        String cacheName = message.substring(0, separator);
+        List<String> stored = evictNear(cacheName, message.substring(separator + 1));
+
+        // A load here that read the database before another replica's write may have reached Redis
+        // after that replica deleted the key; drop what it stored
+        if (!stored.isEmpty()) {
+            try {
+                redisTemplate.delete(stored.stream().map(key -> redisKey(cacheName, key)).collect(Collectors.toList()));
+                redisAvailable();
+            } catch (Exception e) {
+                redisFailed("evict", e);
+            }
+        }
+    }
+
+    private List<String> evictNear(String cacheName, String key) {
+        List<String> stored = cancelLoads(cacheName, key);
+        if (ALL_KEYS.equals(key)) {
+            String prefix = cacheName + ":";
+            nearCache.asMap().keySet().removeIf(nearKey -> nearKey.startsWith(prefix));
+        } else {
+            nearCache.invalidate(cacheName + ":" + key);
+        }
+        return stored;
+    }
+
+    private String redisKey(String cacheName, String key) {
+        return properties.getKeyPrefix() + cacheName + ":" + key;
+    }
+
+    private void redisAvailable() {
+        if (redisHealthy.compareAndSet(false, true)) {
+            logger.info("Redis cache tier is reachable again");
+        }
+    }
+
+    // Logged once per outage rather than once per request
+    private void redisFailed(String operation, Exception e) {
+        if (redisHealthy.compareAndSet(true, false)) {
+            logger.warn("Redis cache {} failed, serving from the database until it recovers: {}", operation, e.getMessage());
+        } else {
+            logger.debug("Redis cache {} failed: {}", operation, e.getMessage());
+        }
+    }
+}
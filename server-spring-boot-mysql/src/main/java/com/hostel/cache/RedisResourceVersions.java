@@ -0,0 +1,74 @@
+package com.hostel.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Counters in one Redis hash shared by all replicas, so a write on any replica changes the ETag
+ * every replica hands out. The hash holds its own epoch field; if Redis loses the hash, a new epoch
+ * is written and older ETags stop matching. When Redis is unreachable no ETag is issued.
+ */
+public class RedisResourceVersions implements ResourceVersions {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedisResourceVersions.class);
+
+    private static final String EPOCH = "_epoch";
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String key;
+
+    public RedisResourceVersions(StringRedisTemplate redisTemplate, String key) {
+        this.redisTemplate = redisTemplate;
+        this.key = key;
+    }
+
+    @Override
+    public String etag(String... resources) {
+        try {
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            List<String> fields = new ArrayList<>(resources.length + 1);
+            fields.add(EPOCH);
+            fields.addAll(List.of(resources));
+            List<String> values = hash.multiGet(key, fields);
+
+            String epoch = values.get(0);
+            if (epoch == null) {
+                hash.putIfAbsent(key, EPOCH, UUID.randomUUID().toString().substring(0, 8));
+                epoch = hash.get(key, EPOCH);
+            }
+            StringBuilder etag = new StringBuilder(epoch);
+            for (int i = 1; i < values.size(); i++) {
+                etag.append('-').append(values.get(i) == null ? "0" : values.get(i));
+            }
+            return etag.toString();
+        } catch (Exception e) {
+            logger.debug("Resource versions unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void bump(String... resources) {
+        try {
+            HashOperations<String, String, String> hash = redisTemplate.opsForHash();
+            for (String resource : resources) {
+                hash.increment(key, resource, 1);
+            }
+        } catch (Exception e) {
+            // Without the bump clients could keep a stale copy, so retire every outstanding ETag instead
+            logger.warn("Failed to bump resource versions {}: {}", List.of(resources), e.getMessage());
+            try {
+                redisTemplate.opsForHash().put(key, EPOCH, UUID.randomUUID().toString().substring(0, 8));
+            } catch (Exception ignored) {
+                // Redis is down: etag() issues no ETags until it is back
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.hostel.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.LocalHostelCache;
+import com.hostel.cache.LocalResourceVersions;
+import com.hostel.cache.RedisHostelCache;
+import com.hostel.cache.RedisResourceVersions;
+import com.hostel.cache.ResourceVersions;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.type", havingValue = "local", matchIfMissing = true)
+    public HostelCache localHostelCache(HostelCacheProperties properties, MeterRegistry meterRegistry) {
+        return new LocalHostelCache(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.type", havingValue = "redis")
+    public RedisHostelCache redisHostelCache(StringRedisTemplate redisTemplate, ObjectMapper objectMapper,
+                                             HostelCacheProperties properties, MeterRegistry meterRegistry) {
+        return new RedisHostelCache(redisTemplate, objectMapper, properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.type", havingValue = "local", matchIfMissing = true)
+    public ResourceVersions localResourceVersions() {
+        return new LocalResourceVersions();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.type", havingValue = "redis")
+    public ResourceVersions redisResourceVersions(StringRedisTemplate redisTemplate, HostelCacheProperties properties) {
+        return new RedisResourceVersions(redisTemplate, properties.getVersionsKey());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.cache.type", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListener(RedisConnectionFactory connectionFactory, RedisHostelCache redisHostelCache,
+                                                                   HostelCacheProperties properties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> redisHostelCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(properties.getInvalidationChannel()));
+        return container;
+    }
+}
@@ -9,6 +9,7 @@ public class JwtProperties {
     
     private String secret;
     private long expiration;
+    private long verifiedCacheSize = 10000;
     
     // Getters and Setters
     public String getSecret() {
@@ -26,4 +27,12 @@ public class JwtProperties {
     public void setExpiration(long expiration) {
         this.expiration = expiration;
     }
+    
+    public long getVerifiedCacheSize() {
+        return verifiedCacheSize;
+    }
+    
+    public void setVerifiedCacheSize(long verifiedCacheSize) {
+        this.verifiedCacheSize = verifiedCacheSize;
+    }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.hostel.controller;
 
 import com.hostel.model.FoodMenu;
 import com.hostel.service.FoodMenuService;
+import com.hostel.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -10,8 +11,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -34,17 +35,61 @@ public class FoodMenuController {
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Food menu retrieved successfully",
             content = @Content(schema = @Schema(implementation = FoodMenu.class))),
+        @ApiResponse(responseCode = "304", description = "Menu unchanged since the ETag in If-None-Match"),
         @ApiResponse(responseCode = "500", description = "Internal server error",
             content = @Content(schema = @Schema(example = "{\"error\": \"Database error\"}")))
     })
-    public ResponseEntity<?> getFoodMenu() {
+    public ResponseEntity<?> getFoodMenu(WebRequest webRequest) {
         try {
-            List<FoodMenu> sortedMenu = foodMenuService.getFoodMenu();
-            return ResponseEntity.ok(sortedMenu);
+            return ConditionalGet.respond(webRequest, foodMenuService.getMenuEtag(), foodMenuService::getFoodMenu);
             
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body(Map.of("error", "Database error"));
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/food-menu/day/{dayOfWeek}")
+    @Operation(
+        summary = "Get Food Menu By Day", 
+        description = "Retrieve one day's meals ordered breakfast, lunch, dinner"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Food menu retrieved successfully",
+            content = @Content(schema = @Schema(implementation = FoodMenu.class))),
+        @ApiResponse(responseCode = "304", description = "Menu unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+            content = @Content(schema = @Schema(example = "{\"error\": \"Database error\"}")))
+    })
+    public ResponseEntity<?> getFoodMenuByDay(@PathVariable String dayOfWeek, WebRequest webRequest) {
+        try {
+            return ConditionalGet.respond(webRequest, foodMenuService.getMenuEtag(), () -> foodMenuService.getFoodMenuByDay(dayOfWeek));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Database error"));
+        }
+    }
+
+    @GetMapping("/food-menu/meal/{mealType}")
+    @Operation(
+        summary = "Get Food Menu By Meal", 
+        description = "Retrieve one meal type across the week ordered Monday to Sunday"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Food menu retrieved successfully",
+            content = @Content(schema = @Schema(implementation = FoodMenu.class))),
+        @ApiResponse(responseCode = "304", description = "Menu unchanged since the ETag in If-None-Match"),
+        @ApiResponse(responseCode = "500", description = "Internal server error",
+            content = @Content(schema = @Schema(example = "{\"error\": \"Database error\"}")))
+    })
+    public ResponseEntity<?> getFoodMenuByMealType(@PathVariable String mealType, WebRequest webRequest) {
+        try {
+            return ConditionalGet.respond(webRequest, foodMenuService.getMenuEtag(), () -> foodMenuService.getFoodMenuByMealType(mealType));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Database error"));
+        }
+    }
+}
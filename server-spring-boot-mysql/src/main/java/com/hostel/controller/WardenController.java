@@ -2,13 +2,19 @@ package com.hostel.controller;
 
 import com.hostel.dto.CreateStudentRequest;
 import com.hostel.dto.AssignRoomRequest;
-import com.hostel.model.RoomChangeRequest;
+import com.hostel.dto.AutoAllocationRequest;
+import com.hostel.dto.BulkDecisionRequest;
+import com.hostel.dto.ProvisionRoomsRequest;
 import com.hostel.model.PersonalDetailsUpdateRequest;
-import com.hostel.model.User;
+import com.hostel.service.AutoAllocationService;
+import com.hostel.service.BulkDecisionService;
+import com.hostel.service.ChangeFeedService;
+import com.hostel.service.RoomChangeMatchingService;
+import com.hostel.service.RoomService;
+import com.hostel.service.SecondLevelCacheStatisticsService;
+import com.hostel.service.StudentExportService;
+import com.hostel.service.StudentImportService;
 import com.hostel.service.StudentService;
-import com.hostel.repository.UserRepository;
-import com.hostel.repository.RoomRepository;
-import com.hostel.model.Room;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,8 +24,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -34,15 +43,36 @@ import java.util.stream.Collectors;
 public class WardenController {
 
     private final StudentService studentService;
-    
-    private final UserRepository userRepository;
 
-    private final RoomRepository roomRepository;
+    private final StudentExportService studentExportService;
+
+    private final StudentImportService studentImportService;
+
+    private final RoomService roomService;
+
+    private final AutoAllocationService autoAllocationService;
+
+    private final RoomChangeMatchingService roomChangeMatchingService;
 
-    public WardenController(StudentService studentService, UserRepository userRepository, RoomRepository roomRepository) {
+    private final BulkDecisionService bulkDecisionService;
+
+    private final SecondLevelCacheStatisticsService secondLevelCacheStatisticsService;
+
+    private final ChangeFeedService changeFeedService;
+
+    public WardenController(StudentService studentService, StudentExportService studentExportService, StudentImportService studentImportService,
+                            RoomService roomService, AutoAllocationService autoAllocationService,
+                            RoomChangeMatchingService roomChangeMatchingService, BulkDecisionService bulkDecisionService,
+                            SecondLevelCacheStatisticsService secondLevelCacheStatisticsService, ChangeFeedService changeFeedService) {
         this.studentService = studentService;
-        this.userRepository = userRepository;
-        this.roomRepository = roomRepository;
+        this.studentExportService = studentExportService;
+        this.studentImportService = studentImportService;
+        this.roomService = roomService;
+        this.autoAllocationService = autoAllocationService;
+        this.roomChangeMatchingService = roomChangeMatchingService;
+        this.bulkDecisionService = bulkDecisionService;
+        this.secondLevelCacheStatisticsService = secondLevelCacheStatisticsService;
+        this.changeFeedService = changeFeedService;
     }
 
     @PostMapping("/create-student")
@@ -74,6 +104,42 @@ public class WardenController {
         }
     }
     
+    @PostMapping(value = "/students/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+        summary = "Bulk Import Students",
+        description = "Create many students at once from a JSON array. Returns generated credentials for created rows and errors for rejected rows"
+    )
+    public ResponseEntity<?> importStudents(@RequestBody List<CreateStudentRequest> requests) {
+        try {
+            return ResponseEntity.ok(studentImportService.importStudents(requests));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to import students: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/students/import", consumes = "text/csv")
+    @Operation(
+        summary = "Bulk Import Students (CSV)",
+        description = "Create many students at once from CSV whose header row uses the JSON field names (full_name, roll_no, aadhaar_id, ...)"
+    )
+    public ResponseEntity<?> importStudentsCsv(@RequestBody String csv) {
+        try {
+            return ResponseEntity.ok(studentImportService.importCsv(csv));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to import students: " + e.getMessage()));
+        }
+    }
+    
     @PostMapping("/assign-room")
     public ResponseEntity<?> assignRoom(@Valid @RequestBody AssignRoomRequest request) {
         try {
@@ -90,36 +156,57 @@ public class WardenController {
         }
     }
     
-    @GetMapping("/room-change-requests")
-    public ResponseEntity<?> getRoomChangeRequests() {
+    @PostMapping("/allocations/auto")
+    @Operation(
+        summary = "Auto Allocate Beds",
+        description = "Place every unassigned student by gender, stream/branch and floor balance rules; dry_run returns the plan without writing it"
+    )
+    public ResponseEntity<?> autoAllocate(@Valid @RequestBody AutoAllocationRequest request) {
         try {
-            List<RoomChangeRequest> requests = studentService.getAllRoomChangeRequests();
+            return ResponseEntity.ok(autoAllocationService.allocate(request));
             
-            List<Map<String, Object>> requestsWithDetails = requests.stream().map(request -> {
-                User student = userRepository.findById(request.getStudentId()).orElse(null);
-                Room currentRoom = request.getCurrentRoomId() != null ? 
-                    roomRepository.findById(request.getCurrentRoomId()).orElse(null) : null;
-                Room requestedRoom = roomRepository.findById(request.getRequestedRoomId()).orElse(null);
-                
-                Map<String, Object> requestMap = new HashMap<>();
-                requestMap.put("id", request.getId());
-                requestMap.put("student_id", request.getStudentId());
-                requestMap.put("student_name", student != null ? student.getFullName() : "Unknown");
-                requestMap.put("current_room_id", request.getCurrentRoomId() != null ? request.getCurrentRoomId() : "");
-                requestMap.put("current_room", currentRoom != null ? currentRoom.getRoomNumber() : null);
-                requestMap.put("requested_room_id", request.getRequestedRoomId());
-                requestMap.put("requested_room", requestedRoom != null ? requestedRoom.getRoomNumber() : "Unknown");
-                requestMap.put("requested_bed_number", request.getRequestedBedNumber());
-                requestMap.put("reason", request.getReason());
-                requestMap.put("status", request.getStatus());
-                requestMap.put("requested_at", request.getRequestedAt());
-                requestMap.put("processed_at", request.getProcessedAt());
-                requestMap.put("processed_by", request.getProcessedBy());
-                return requestMap;
-            }).collect(Collectors.toList());
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to allocate beds: " + e.getMessage()));
+        }
+    }
+    
+    @PostMapping("/rooms/provision")
+    @Operation(
+        summary = "Provision Rooms",
+        description = "Create rooms and their beds for a range of floors from room templates, in batched writes"
+    )
+    public ResponseEntity<?> provisionRooms(@Valid @RequestBody ProvisionRoomsRequest request) {
+        try {
+            return ResponseEntity.ok(roomService.provisionRooms(request));
             
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to provision rooms: " + e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/room-change-requests")
+    public ResponseEntity<?> getRoomChangeRequests(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            if (limit != null) {
+                return ResponseEntity.ok(studentService.getRoomChangeRequestsPage(status, after, limit));
+            }
+            List<Map<String, Object>> requestsWithDetails = studentService.getRoomChangeRequestsWithDetails(status);
             return ResponseEntity.ok(requestsWithDetails);
             
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body(Map.of("error", "Database error"));
@@ -127,11 +214,25 @@ public class WardenController {
     }
 
     @GetMapping("/students")
-    public ResponseEntity<?> getAllStudents() {
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) String stream,
+            @RequestParam(required = false) String branch,
+            @RequestParam(required = false) Boolean assigned,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<Map<String, Object>> students = studentService.getAllStudents();
+            // Keyset paging is opt-in via limit; without it the full (optionally filtered) list is returned
+            if (limit != null) {
+                return ResponseEntity.ok(studentService.getStudentsPage(stream, branch, assigned, after, limit));
+            }
+            List<Map<String, Object>> students = stream == null && branch == null && assigned == null
+                ? studentService.getAllStudents()
+                : studentService.getStudents(stream, branch, assigned);
             return ResponseEntity.ok(students);
             
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             System.err.println("Error fetching students: " + e.getMessage());
             e.printStackTrace();
@@ -140,6 +241,25 @@ public class WardenController {
         }
     }
 
+    @GetMapping("/students/export")
+    @Operation(
+        summary = "Export Student Roster",
+        description = "Stream the full student roster with room assignments as CSV or NDJSON (one JSON object per line)"
+    )
+    public ResponseEntity<?> exportStudents(@RequestParam(defaultValue = "csv") String format) {
+        if (!StudentExportService.isSupportedFormat(format)) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", "Unsupported export format: " + format));
+        }
+        
+        boolean csv = StudentExportService.FORMAT_CSV.equals(format);
+        StreamingResponseBody body = outputStream -> studentExportService.exportRoster(format, outputStream);
+        return ResponseEntity.ok()
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"students." + format + "\"")
+            .contentType(csv ? MediaType.parseMediaType("text/csv;charset=UTF-8") : MediaType.parseMediaType("application/x-ndjson"))
+            .body(body);
+    }
+
     @GetMapping("/students/{id}")
     public ResponseEntity<?> getStudentById(@PathVariable Long id) {
         try {
@@ -185,6 +305,62 @@ public class WardenController {
         }
     }
 
+    @PostMapping("/room-change-requests/match")
+    @Operation(
+        summary = "Match Room Change Requests",
+        description = "Approve pending requests that form swap cycles or chains into a free bed, each cycle or chain as one atomic set of moves; " +
+            "a lone request for a free bed is only approved with include_single_moves; dry_run only reports them"
+    )
+    public ResponseEntity<?> matchRoomChangeRequests(@RequestParam(name = "dry_run", defaultValue = "true") boolean dryRun,
+                                                     @RequestParam(name = "include_single_moves", defaultValue = "false") boolean includeSingleMoves) {
+        try {
+            return ResponseEntity.ok(roomChangeMatchingService.matchPendingRequests(dryRun, includeSingleMoves, "warden"));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to match room change requests"));
+        }
+    }
+
+    @PostMapping("/room-change-requests/bulk-approve")
+    @Operation(
+        summary = "Bulk Approve Room Change Requests",
+        description = "Approve the listed ids, or every pending request older than older_than, in one call with a per-id outcome"
+    )
+    public ResponseEntity<?> bulkApproveRoomChangeRequests(@RequestBody BulkDecisionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkDecisionService.decideRoomChangeRequests(request, true));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to approve room change requests"));
+        }
+    }
+
+    @PostMapping("/room-change-requests/bulk-reject")
+    @Operation(
+        summary = "Bulk Reject Room Change Requests",
+        description = "Reject the listed ids, or every pending request older than older_than, in one call with a per-id outcome"
+    )
+    public ResponseEntity<?> bulkRejectRoomChangeRequests(@RequestBody BulkDecisionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkDecisionService.decideRoomChangeRequests(request, false));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to reject room change requests"));
+        }
+    }
+
     @PutMapping("/room-change-requests/{requestId}/approve")
     public ResponseEntity<?> approveRoomChangeRequest(@PathVariable Long requestId) {
         try {
@@ -216,41 +392,68 @@ public class WardenController {
     }
 
     @GetMapping("/personal-details-update-requests")
-    public ResponseEntity<?> getPersonalDetailsUpdateRequests() {
+    public ResponseEntity<?> getPersonalDetailsUpdateRequests(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
         try {
-            List<PersonalDetailsUpdateRequest> requests = studentService.getAllPersonalDetailsUpdateRequests();
+            if (limit != null) {
+                return ResponseEntity.ok(studentService.getPersonalDetailsUpdateRequestsPage(status, after, limit)
+                    .map(WardenController::toPersonalDetailsMap));
+            }
+            List<PersonalDetailsUpdateRequest> requests = studentService.getPersonalDetailsUpdateRequests(status);
             
-            List<Map<String, Object>> requestsWithDetails = requests.stream().map(request -> {
-                Map<String, Object> requestMap = new HashMap<>();
-                requestMap.put("id", request.getId());
-                requestMap.put("student_id", request.getStudentId());
-                requestMap.put("student_name", request.getStudentName());
-                requestMap.put("roll_no", request.getStudentRollNo());
-                requestMap.put("phone", request.getPhone());
-                requestMap.put("address_line1", request.getAddressLine1());
-                requestMap.put("address_line2", request.getAddressLine2());
-                requestMap.put("city", request.getCity());
-                requestMap.put("state", request.getState());
-                requestMap.put("postal_code", request.getPostalCode());
-                requestMap.put("guardian_name", request.getGuardianName());
-                requestMap.put("guardian_phone", request.getGuardianPhone());
-                requestMap.put("guardian_address", request.getGuardianAddress());
-                requestMap.put("status", request.getStatus());
-                requestMap.put("requested_at", request.getCreatedAt());
-                requestMap.put("processed_at", request.getProcessedAt());
-                requestMap.put("processed_by", request.getProcessedBy());
-                requestMap.put("warden_comments", request.getWardenComments());
-                return requestMap;
-            }).collect(Collectors.toList());
+            List<Map<String, Object>> requestsWithDetails = requests.stream()
+                .map(WardenController::toPersonalDetailsMap)
+                .collect(Collectors.toList());
             
             return ResponseEntity.ok(requestsWithDetails);
             
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(500)
                 .body(Map.of("error", "Failed to fetch personal details update requests"));
         }
     }
 
+    @PostMapping("/personal-details-update-requests/bulk-approve")
+    @Operation(
+        summary = "Bulk Approve Personal Details Update Requests",
+        description = "Approve the listed ids, or every pending request older than older_than, in one call with a per-id outcome"
+    )
+    public ResponseEntity<?> bulkApprovePersonalDetailsUpdateRequests(@RequestBody BulkDecisionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkDecisionService.decidePersonalDetailsRequests(request, true));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to approve personal details update requests"));
+        }
+    }
+
+    @PostMapping("/personal-details-update-requests/bulk-reject")
+    @Operation(
+        summary = "Bulk Reject Personal Details Update Requests",
+        description = "Reject the listed ids, or every pending request older than older_than, in one call with a per-id outcome"
+    )
+    public ResponseEntity<?> bulkRejectPersonalDetailsUpdateRequests(@RequestBody BulkDecisionRequest request) {
+        try {
+            return ResponseEntity.ok(bulkDecisionService.decidePersonalDetailsRequests(request, false));
+            
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to reject personal details update requests"));
+        }
+    }
+
     @PutMapping("/personal-details-update-requests/{requestId}/approve")
     public ResponseEntity<?> approvePersonalDetailsUpdateRequest(
             @PathVariable Long requestId, 
@@ -286,4 +489,73 @@ public class WardenController {
                 .body(Map.of("error", "Failed to reject personal details update request"));
         }
     }
+
+    @GetMapping("/cache/statistics")
+    @Operation(
+        summary = "Get Entity Cache Statistics",
+        description = "Hit, miss and put counts of the Hibernate second-level and query caches, overall and per region"
+    )
+    public ResponseEntity<?> getCacheStatistics() {
+        try {
+            return ResponseEntity.ok(secondLevelCacheStatisticsService.getStatistics());
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to read cache statistics"));
+        }
+    }
+
+    @GetMapping("/changes/{feed}")
+    @Operation(
+        summary = "Get Changes Since Cursor",
+        description = "Records of a feed (rooms, beds, students, room-change-requests, personal-details-update-requests) " +
+                      "inserted, updated or deleted since the cursor from the previous call; omit since to start from the beginning"
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Changes and the cursor to pass as since on the next call",
+            content = @Content(schema = @Schema(example = "{\"changes\": [], \"deleted\": [12], \"next_since\": \"...\", \"has_more\": false}"))),
+        @ApiResponse(responseCode = "410", description = "Cursor older than the tombstone retention - reload without since",
+            content = @Content(schema = @Schema(example = "{\"error\": \"The since cursor is older than the 7 day tombstone retention; reload without since\"}")))
+    })
+    public ResponseEntity<?> getChanges(
+            @Parameter(description = "Feed name") @PathVariable String feed,
+            @Parameter(description = "next_since from the previous call") @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int limit) {
+        try {
+            return ResponseEntity.ok(changeFeedService.getChanges(feed, since, limit));
+            
+        } catch (ChangeFeedService.CursorExpiredException e) {
+            return ResponseEntity.status(410)
+                .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(400)
+                .body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Failed to read changes"));
+        }
+    }
+
+    private static Map<String, Object> toPersonalDetailsMap(PersonalDetailsUpdateRequest request) {
+        Map<String, Object> requestMap = new HashMap<>();
+        requestMap.put("id", request.getId());
+        requestMap.put("student_id", request.getStudentId());
+        requestMap.put("student_name", request.getStudentName());
+        requestMap.put("roll_no", request.getStudentRollNo());
+        requestMap.put("phone", request.getPhone());
+        requestMap.put("address_line1", request.getAddressLine1());
+        requestMap.put("address_line2", request.getAddressLine2());
+        requestMap.put("city", request.getCity());
+        requestMap.put("state", request.getState());
+        requestMap.put("postal_code", request.getPostalCode());
+        requestMap.put("guardian_name", request.getGuardianName());
+        requestMap.put("guardian_phone", request.getGuardianPhone());
+        requestMap.put("guardian_address", request.getGuardianAddress());
+        requestMap.put("status", request.getStatus());
+        requestMap.put("requested_at", request.getCreatedAt());
+        requestMap.put("processed_at", request.getProcessedAt());
+        requestMap.put("processed_by", request.getProcessedBy());
+        requestMap.put("warden_comments", request.getWardenComments());
+        return requestMap;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.hostel.dto;
+
+/**
+ * Closed projection with the student fields the auto-allocation rules look at.
+ */
+public interface AllocationCandidateView {
+    
+    Long getId();
+    
+    String getRollNo();
+    
+    String getGender();
+    
+    String getStream();
+    
+    String getBranch();
+}
@@ -0,0 +1,30 @@
+package com.hostel.dto;
+
+/**
+ * Number of beds in a room that share the same status.
+ */
+public class BedStatusCount {
+    
+    private Long roomId;
+    private String status;
+    private long total;
+    
+    // Constructors
+    public BedStatusCount() {}
+    
+    public BedStatusCount(Long roomId, String status, Long total) {
+        this.roomId = roomId;
+        this.status = status;
+        this.total = total;
+    }
+    
+    // Getters and Setters
+    public Long getRoomId() { return roomId; }
+    public void setRoomId(Long roomId) { this.roomId = roomId; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+}
@@ -0,0 +1,11 @@
+package com.hostel.dto;
+
+/**
+ * Closed projection used when only a user's display name is needed.
+ */
+public interface UserNameView {
+    
+    Long getId();
+    
+    String getFullName();
+}
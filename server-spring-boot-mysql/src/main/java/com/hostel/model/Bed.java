@@ -3,12 +3,23 @@ package com.hostel.model;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 
+import java.time.LocalDateTime;
+
 @Entity
-@Table(name = "beds")
+@Table(name = "beds",
+    uniqueConstraints = @UniqueConstraint(name = "uk_beds_student_id", columnNames = "student_id"),
+    indexes = {
+        @Index(name = "idx_beds_room_bed_number", columnList = "room_id, bed_number"),
+        @Index(name = "idx_beds_room_status", columnList = "room_id, status"),
+        @Index(name = "idx_beds_changed_at", columnList = "changed_at, id")
+    })
 public class Bed {
     
+    // Pooled table generator so bulk provisioning can batch inserts (see User)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "bed_id_generator")
+    @TableGenerator(name = "bed_id_generator", table = "id_generators", pkColumnName = "entity",
+        valueColumnName = "next_val", pkColumnValue = "beds", allocationSize = 50)
     private Long id;
     
     @JsonProperty("room_id")
@@ -25,6 +36,18 @@ public class Bed {
     
     private String status; // "available" or "occupied"
     
+    // Set by the database on insert and on every update that changes the row, including bulk JPQL and
+    // JDBC writes, so the change feed sees them all; never written by Hibernate and stale after a save
+    @JsonProperty("changed_at")
+    @Column(name = "changed_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6) on update current_timestamp(6)")
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors
     public Bed() {}
     
@@ -75,4 +98,20 @@ public class Bed {
     public void setStatus(String status) {
         this.status = status;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,73 @@
+package com.hostel.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Tombstone left by a delete so change feed clients can drop the record; pruned after the retention period
+@Entity
+@Table(name = "deleted_records", indexes = {
+    @Index(name = "idx_deleted_records_type_deleted_at", columnList = "entity_type, deleted_at, id")
+})
+public class DeletedRecord {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JsonProperty("entity_type")
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;
+
+    @JsonProperty("entity_id")
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    // Database clock, comparable with the changed_at columns (see Bed)
+    @JsonProperty("deleted_at")
+    @Column(name = "deleted_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6)")
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public DeletedRecord() {}
+
+    public DeletedRecord(String entityType, Long entityId) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(Long entityId) {
+        this.entityId = entityId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
\ No newline at end of file
@@ -8,7 +8,11 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "personal_details_update_requests")
+@Table(name = "personal_details_update_requests", indexes = {
+    @Index(name = "idx_personal_details_requests_status", columnList = "status"),
+    @Index(name = "idx_personal_details_requests_student_status", columnList = "student_id, status"),
+    @Index(name = "idx_personal_details_requests_changed_at", columnList = "changed_at, id")
+})
 public class PersonalDetailsUpdateRequest {
     
     @Id
@@ -82,6 +86,17 @@ public class PersonalDetailsUpdateRequest {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Maintained by the database for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @Column(name = "changed_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6) on update current_timestamp(6)")
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors
     public PersonalDetailsUpdateRequest() {
         this.status = "pending";
@@ -151,4 +166,10 @@ public class PersonalDetailsUpdateRequest {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
 } 
\ No newline at end of file
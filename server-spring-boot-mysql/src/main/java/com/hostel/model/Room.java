@@ -2,16 +2,25 @@ package com.hostel.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = {
+    @Index(name = "idx_rooms_changed_at", columnList = "changed_at, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "hostel.room")
 public class Room {
     
+    // Pooled table generator so bulk provisioning can batch inserts (see User)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "room_id_generator")
+    @TableGenerator(name = "room_id_generator", table = "id_generators", pkColumnName = "entity",
+        valueColumnName = "next_val", pkColumnValue = "rooms", allocationSize = 50)
     private Long id;
     
     @Column(name = "room_number", unique = true, nullable = false)
@@ -35,6 +44,17 @@ public class Room {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
     
+    // Maintained by the database for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @Column(name = "changed_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6) on update current_timestamp(6)")
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors
     public Room() {}
     
@@ -102,4 +122,20 @@ public class Room {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
@@ -7,7 +7,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "room_change_requests")
+@Table(name = "room_change_requests", indexes = {
+    @Index(name = "idx_room_change_requests_status", columnList = "status"),
+    @Index(name = "idx_room_change_requests_student_status", columnList = "student_id, status"),
+    @Index(name = "idx_room_change_requests_changed_at", columnList = "changed_at, id")
+})
 public class RoomChangeRequest {
     
     @Id
@@ -48,6 +52,17 @@ public class RoomChangeRequest {
     @Column(name = "processed_by")
     private String processedBy;
     
+    // Maintained by the database for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @Column(name = "changed_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6) on update current_timestamp(6)")
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+    
     // Constructors
     public RoomChangeRequest() {
         this.status = "pending";
@@ -142,4 +157,20 @@ public class RoomChangeRequest {
     public void setProcessedBy(String processedBy) {
         this.processedBy = processedBy;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
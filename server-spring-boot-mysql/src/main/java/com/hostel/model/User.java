@@ -10,11 +10,19 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+    @Index(name = "idx_users_role_stream_branch", columnList = "role, stream, branch"),
+    @Index(name = "idx_users_role_stream_id", columnList = "role, stream, id"),
+    @Index(name = "idx_users_role_branch_id", columnList = "role, branch, id"),
+    @Index(name = "idx_users_role_changed_at", columnList = "role, changed_at, id")
+})
 public class User {
     
+    // Pooled table generator: ids are reserved in blocks so inserts can be JDBC-batched (IDENTITY disables batching)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id_generator")
+    @TableGenerator(name = "user_id_generator", table = "id_generators", pkColumnName = "entity",
+        valueColumnName = "next_val", pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false)
@@ -96,6 +104,12 @@ public class User {
     @Column(name = "first_login")
     private Boolean firstLogin = true; // Default to true for new users
     
+    // Maintained by the database for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @Column(name = "changed_at", insertable = false, updatable = false,
+        columnDefinition = "datetime(6) not null default current_timestamp(6) on update current_timestamp(6)")
+    private LocalDateTime changedAt;
+    
     // Constructors
     public User() {}
     
@@ -321,4 +335,12 @@ public class User {
     public void setGuardianPhone(String guardianPhone) {
         this.guardianPhone = guardianPhone;
     }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
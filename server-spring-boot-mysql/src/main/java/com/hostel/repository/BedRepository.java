@@ -1,8 +1,14 @@
 package com.hostel.repository;
 
+import com.hostel.dto.BedStatusCount;
 import com.hostel.model.Bed;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,10 +21,35 @@ public interface BedRepository extends JpaRepository<Bed, Long> {
     
     Optional<Bed> findByStudentId(Long studentId);
     
+    List<Bed> findByStudentIdIn(Collection<Long> studentIds);
+    
     Optional<Bed> findByRoomIdAndBedNumber(Long roomId, Integer bedNumber);
     
     long countByRoomIdAndStatus(Long roomId, String status);
     
     // Count methods for statistics
     long countByStatus(String status);
-} 
\ No newline at end of file
+    
+    // Bed counts for every room in one grouped query
+    @Query("SELECT new com.hostel.dto.BedStatusCount(b.roomId, b.status, COUNT(b)) FROM Bed b GROUP BY b.roomId, b.status")
+    List<BedStatusCount> countGroupedByRoomIdAndStatus();
+    
+    // Conditional claim: occupies the bed only while it is still available; returns the number of rows changed (0 or 1)
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Bed b SET b.status = 'occupied', b.studentId = :studentId, b.version = b.version + 1 WHERE b.id = :bedId AND b.status = 'available'")
+    int claimBed(@Param("bedId") Long bedId, @Param("studentId") Long studentId);
+    
+    // Conditional release: frees the bed only while the given student still holds it; returns the number of rows changed
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Bed b SET b.status = 'available', b.studentId = NULL, b.version = b.version + 1 WHERE b.id = :bedId AND b.studentId = :studentId")
+    int releaseBed(@Param("bedId") Long bedId, @Param("studentId") Long studentId);
+    
+    // Conditional claim addressed by room and bed number, saving the lookup of the bed id
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Bed b SET b.status = 'occupied', b.studentId = :studentId, b.version = b.version + 1 " +
+           "WHERE b.roomId = :roomId AND b.bedNumber = :bedNumber AND b.status = 'available'")
+    int claimBedByNumber(@Param("roomId") Long roomId, @Param("bedNumber") Integer bedNumber, @Param("studentId") Long studentId);
+}
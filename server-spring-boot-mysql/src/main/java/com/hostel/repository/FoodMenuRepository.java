@@ -1,13 +1,17 @@
 package com.hostel.repository;
 
 import com.hostel.model.FoodMenu;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface FoodMenuRepository extends JpaRepository<FoodMenu, Long> {
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "hostel.query.food_menu")})
     List<FoodMenu> findByDayOfWeek(String dayOfWeek);
     
     List<FoodMenu> findByMealType(String mealType);
@@ -2,8 +2,10 @@ package com.hostel.repository;
 
 import com.hostel.model.PersonalDetailsUpdateRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +14,21 @@ public interface PersonalDetailsUpdateRequestRepository extends JpaRepository<Pe
     
     List<PersonalDetailsUpdateRequest> findByStatus(String status);
     
+    // Bulk decisions: pending requests submitted before a cutoff, oldest first up to the page size
+    List<PersonalDetailsUpdateRequest> findByStatusAndCreatedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
     List<PersonalDetailsUpdateRequest> findByStudentId(Long studentId);
     
     Optional<PersonalDetailsUpdateRequest> findByStudentIdAndStatus(Long studentId, String status);
     
     List<PersonalDetailsUpdateRequest> findAllByOrderByCreatedAtDesc();
+    
+    // Keyset pages: newest first, callers pass a first-page Pageable sorted by id descending
+    List<PersonalDetailsUpdateRequest> findAllBy(Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByStatus(String status, Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByIdLessThan(Long id, Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByStatusAndIdLessThan(String status, Long id, Pageable pageable);
 } 
\ No newline at end of file
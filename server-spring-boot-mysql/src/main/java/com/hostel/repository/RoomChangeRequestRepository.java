@@ -2,7 +2,13 @@ package com.hostel.repository;
 
 import com.hostel.model.RoomChangeRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,7 +18,29 @@ public interface RoomChangeRequestRepository extends JpaRepository<RoomChangeReq
     
     List<RoomChangeRequest> findByStatus(String status);
     
+    // Bulk decisions: pending requests submitted before a cutoff, oldest first up to the page size
+    List<RoomChangeRequest> findByStatusAndRequestedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
     List<RoomChangeRequest> findByStudentIdAndStatus(Long studentId, String status);
     
     List<RoomChangeRequest> findAllByOrderByRequestedAtDesc();
-} 
\ No newline at end of file
+    
+    List<RoomChangeRequest> findByStatusOrderByRequestedAtDesc(String status);
+    
+    // Keyset pages: newest first, callers pass a first-page Pageable sorted by id descending
+    List<RoomChangeRequest> findAllBy(Pageable pageable);
+    
+    List<RoomChangeRequest> findByStatus(String status, Pageable pageable);
+    
+    List<RoomChangeRequest> findByIdLessThan(Long id, Pageable pageable);
+    
+    List<RoomChangeRequest> findByStatusAndIdLessThan(String status, Long id, Pageable pageable);
+    
+    // Conditional close: only a pending request changes, so of two concurrent decisions exactly one proceeds
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE RoomChangeRequest r SET r.status = :status, r.processedAt = :processedAt, r.processedBy = :processedBy, " +
+           "r.version = r.version + 1 WHERE r.id = :id AND r.status = 'pending'")
+    int closePending(@Param("id") Long id, @Param("status") String status,
+                     @Param("processedAt") LocalDateTime processedAt, @Param("processedBy") String processedBy);
+}
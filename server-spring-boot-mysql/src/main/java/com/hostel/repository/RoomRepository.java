@@ -1,14 +1,44 @@
 package com.hostel.repository;
 
 import com.hostel.model.Room;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
     
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"), @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "hostel.query.room")})
     Optional<Room> findByRoomNumber(String roomNumber);
     
     boolean existsByRoomNumber(String roomNumber);
-} 
\ No newline at end of file
+    
+    List<Room> findByRoomNumberIn(Collection<String> roomNumbers);
+    
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Room r SET r.occupiedBeds = COALESCE(r.occupiedBeds, 0) + :delta, r.version = r.version + 1 WHERE r.id = :roomId")
+    int adjustOccupancy(@Param("roomId") Long roomId, @Param("delta") int delta);
+    
+    // Occupancy for a bed move in one statement: the source room loses a bed and the target gains one
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Room r SET r.occupiedBeds = COALESCE(r.occupiedBeds, 0) + CASE WHEN r.id = :toRoomId THEN 1 ELSE -1 END, " +
+           "r.version = r.version + 1 WHERE r.id IN (:fromRoomId, :toRoomId)")
+    int moveOccupancy(@Param("fromRoomId") Long fromRoomId, @Param("toRoomId") Long toRoomId);
+    
+    // Drift repair: sets the counter only while the room is still at the version it was checked at
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Room r SET r.occupiedBeds = :occupiedBeds, r.version = r.version + 1 WHERE r.id = :roomId AND r.version = :version")
+    int repairOccupancy(@Param("roomId") Long roomId, @Param("version") Long version, @Param("occupiedBeds") int occupiedBeds);
+}
@@ -1,13 +1,25 @@
 package com.hostel.repository;
 
+import com.hostel.dto.StudentRosterEntry;
+import com.hostel.dto.AllocationCandidateView;
+import com.hostel.dto.UserNameView;
+import com.hostel.dto.UserLoginView;
 import com.hostel.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
+    
+    // Roster projection shared by findStudentRoster and UserRepositoryImpl.findStudentRosterPage
+    String STUDENT_ROSTER_SELECT = "SELECT new com.hostel.dto.StudentRosterEntry(u.id, u.fullName, u.username, u.email, u.phone, " +
+        "u.dateOfBirth, u.gender, u.aadhaarId, u.rollNo, u.stream, u.branch, u.createdAt, u.firstLogin, " +
+        "r.id, r.roomNumber, b.bedNumber) " +
+        "FROM User u LEFT JOIN Bed b ON b.studentId = u.id LEFT JOIN Room r ON r.id = b.roomId ";
     
     Optional<User> findByUsername(String username);
     
@@ -28,6 +40,22 @@ public interface UserRepository extends JpaRepository<User, Long> {
     
     boolean existsByPhone(String phone);
     
+    // Set-based uniqueness check for bulk imports: every user clashing on any of the unique fields
+    List<User> findByUsernameInOrAadhaarIdInOrRollNoInOrPhoneIn(Collection<String> usernames, Collection<String> aadhaarIds,
+                                                                Collection<String> rollNos, Collection<String> phones);
+    
     // Count methods for statistics
     long countByRole(String role);
+    
+    // Batch lookup of display names (id + full_name only)
+    List<UserNameView> findByIdIn(Collection<Long> ids);
+    
+    List<UserLoginView> findAllProjectedBy();
+    
+    // Allocation inputs for every user of a role, without loading full profiles
+    List<AllocationCandidateView> findAllProjectedByRole(String role);
+    
+    // Student roster with room assignment, resolved in a single joined query
+    @Query(STUDENT_ROSTER_SELECT + "WHERE u.role = 'student' ORDER BY u.id")
+    List<StudentRosterEntry> findStudentRoster();
 } 
\ No newline at end of file
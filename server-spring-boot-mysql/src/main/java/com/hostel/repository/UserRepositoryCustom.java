@@ -0,0 +1,15 @@
+package com.hostel.repository;
+
+import com.hostel.dto.StudentRosterEntry;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+    
+    // Filtered roster ordered by id; null arguments are not applied, after/limit drive keyset paging
+    List<StudentRosterEntry> findStudentRosterPage(String stream, String branch, Boolean assigned, Long after, Integer limit);
+    
+    // Full roster pushed row by row from a forward-only cursor, without materialising the result
+    void streamStudentRoster(Consumer<StudentRosterEntry> consumer);
+}
@@ -0,0 +1,92 @@
+package com.hostel.repository;
+
+import com.hostel.dto.StudentRosterEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    private static final String STREAM_ROSTER_SQL =
+        "SELECT u.id, u.full_name, u.username, u.email, u.phone, u.date_of_birth, u.gender, u.aadhaar_id, " +
+        "u.roll_no, u.stream, u.branch, u.created_at, u.first_login, r.id AS room_id, r.room_number, b.bed_number " +
+        "FROM users u LEFT JOIN beds b ON b.student_id = u.id LEFT JOIN rooms r ON r.id = b.room_id " +
+        "WHERE u.role = 'student' ORDER BY u.id";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    private final JdbcTemplate streamingJdbcTemplate;
+
+    public UserRepositoryImpl(DataSource dataSource) {
+        // Connector/J only streams rows (instead of buffering the whole result) with this fetch size
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+    }
+
+    @Override
+    public List<StudentRosterEntry> findStudentRosterPage(String stream, String branch, Boolean assigned, Long after, Integer limit) {
+        StringBuilder jpql = new StringBuilder(UserRepository.STUDENT_ROSTER_SELECT).append("WHERE u.role = 'student'");
+        Map<String, Object> parameters = new HashMap<>();
+        
+        if (stream != null) {
+            jpql.append(" AND u.stream = :stream");
+            parameters.put("stream", stream);
+        }
+        if (branch != null) {
+            jpql.append(" AND u.branch = :branch");
+            parameters.put("branch", branch);
+        }
+        if (assigned != null) {
+            // A probe of the unique student index on beds, evaluated while the users index is walked
+            jpql.append(assigned ? " AND EXISTS" : " AND NOT EXISTS")
+                .append(" (SELECT 1 FROM Bed held WHERE held.studentId = u.id)");
+        }
+        if (after != null) {
+            jpql.append(" AND u.id > :after");
+            parameters.put("after", after);
+        }
+        jpql.append(" ORDER BY u.id");
+        
+        TypedQuery<StudentRosterEntry> query = entityManager.createQuery(jpql.toString(), StudentRosterEntry.class);
+        parameters.forEach(query::setParameter);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+        return query.getResultList();
+    }
+    
+    @Override
+    public void streamStudentRoster(Consumer<StudentRosterEntry> consumer) {
+        streamingJdbcTemplate.query(connection -> connection.prepareStatement(STREAM_ROSTER_SQL,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY),
+            (RowCallbackHandler) rs -> consumer.accept(new StudentRosterEntry(
+                rs.getLong("id"),
+                rs.getString("full_name"),
+                rs.getString("username"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getObject("date_of_birth", LocalDate.class),
+                rs.getString("gender"),
+                rs.getString("aadhaar_id"),
+                rs.getString("roll_no"),
+                rs.getString("stream"),
+                rs.getString("branch"),
+                rs.getObject("created_at", LocalDateTime.class),
+                rs.getObject("first_login", Boolean.class),
+                rs.getObject("room_id", Long.class),
+                rs.getString("room_number"),
+                rs.getObject("bed_number", Integer.class))));
+    }
+}
@@ -76,6 +76,7 @@ public class AuthService {
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setFirstLogin(false);
         userRepository.save(user);
+        
     }
     
     private UserDto convertToUserDto(User user) {
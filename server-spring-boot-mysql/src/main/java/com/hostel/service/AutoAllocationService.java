@@ -0,0 +1,436 @@
+package com.hostel.service;
+
+import com.hostel.dto.AllocationCandidateView;
+import com.hostel.dto.AutoAllocationRequest;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomRepository;
+import com.hostel.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Places every unassigned student in one run. The plan is computed in memory from a single read of
+ * rooms, beds and student profiles: students are bucketed by gender and stream/branch, each bucket
+ * fills rooms together, and fresh rooms are opened on the least filled floor. Writing the plan goes
+ * in batches of app.allocation.batch-size beds, each one transaction of versioned bed updates plus
+ * one occupancy update per room; a batch that loses a race is replayed bed by bed with the
+ * conditional claim so only the contested beds are skipped.
+ */
+@Service
+public class AutoAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutoAllocationService.class);
+
+    // Gender key of rooms whose occupants do not share one gender; no bucket ever matches it
+    private static final String MIXED = "\u0000mixed";
+
+    private static final String ANY_GENDER = "*";
+
+    private final UserRepository userRepository;
+
+    private final RoomRepository roomRepository;
+
+    private final BedRepository bedRepository;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public AutoAllocationService(UserRepository userRepository, RoomRepository roomRepository, BedRepository bedRepository, BedAvailabilityIndex bedAvailabilityIndex,
+                                 TransactionTemplate transactionTemplate, @Value("${app.allocation.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.roomRepository = roomRepository;
+        this.bedRepository = bedRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    public Map<String, Object> allocate(AutoAllocationRequest request) {
+        long start = System.nanoTime();
+        AllocationState state = loadState(request);
+        long loadedAt = System.nanoTime();
+
+        List<Placement> placements = new ArrayList<>();
+        List<AllocationCandidateView> unplaced = new ArrayList<>();
+        for (Bucket bucket : buckets(state.unassigned, request)) {
+            place(state, bucket, request.isBalanceFloors(), placements, unplaced);
+        }
+        long plannedAt = System.nanoTime();
+
+        List<Placement> conflicts = request.isDryRun() ? List.of() : commit(placements);
+        long committedAt = System.nanoTime();
+
+        Map<String, Object> timing = new LinkedHashMap<>();
+        timing.put("load", (loadedAt - start) / 1_000_000);
+        timing.put("plan", (plannedAt - loadedAt) / 1_000_000);
+        timing.put("commit", (committedAt - plannedAt) / 1_000_000);
+        timing.put("total", (committedAt - start) / 1_000_000);
+
+        logger.info("Auto allocation{}: {} unassigned, {} planned, {} unplaced, {} conflicts in {} ms",
+            request.isDryRun() ? " (dry run)" : "", state.unassigned.size(), placements.size(), unplaced.size(), conflicts.size(), timing.get("total"));
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("dry_run", request.isDryRun());
+        response.put("unassigned_students", state.unassigned.size());
+        response.put("planned", placements.size());
+        response.put("allocated", request.isDryRun() ? 0 : placements.size() - conflicts.size());
+        response.put("conflicts", conflicts.size());
+        response.put("unplaced", unplaced.size());
+        response.put("timing_ms", timing);
+        response.put("floors", floorSummary(state));
+        response.put("plan", placements.stream().map(Placement::toMap).collect(Collectors.toList()));
+        response.put("conflicted_students", conflicts.stream().map(placement -> placement.rollNo).collect(Collectors.toList()));
+        response.put("unplaced_students", unplaced.stream().map(student -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("student_id", student.getId());
+            entry.put("roll_no", student.getRollNo());
+            entry.put("gender", student.getGender());
+            return entry;
+        }).collect(Collectors.toList()));
+        return response;
+    }
+
+    private AllocationState loadState(AutoAllocationRequest request) {
+        Map<Long, AllocationCandidateView> students = new HashMap<>();
+        for (AllocationCandidateView student : userRepository.findAllProjectedByRole("student")) {
+            students.put(student.getId(), student);
+        }
+
+        Map<Long, RoomState> rooms = new TreeMap<>();
+        for (Room room : roomRepository.findAll()) {
+            if (request.getRoomType() == null || request.getRoomType().equals(room.getRoomType())) {
+                rooms.put(room.getId(), new RoomState(room));
+            }
+        }
+
+        // Beds in number order so every room hands out its lowest free bed first
+        List<Bed> beds = bedRepository.findAll();
+        beds.sort(Comparator.comparing(Bed::getBedNumber, Comparator.nullsLast(Comparator.naturalOrder())));
+        Set<Long> assigned = new HashSet<>();
+        for (Bed bed : beds) {
+            if (bed.getStudentId() != null) {
+                assigned.add(bed.getStudentId());
+            }
+            RoomState room = rooms.get(bed.getRoomId());
+            if (room == null) {
+                continue;
+            }
+            room.beds++;
+            if ("available".equals(bed.getStatus())) {
+                room.freeBeds.add(bed);
+            } else if (students.containsKey(bed.getStudentId())) {
+                AllocationCandidateView occupant = students.get(bed.getStudentId());
+                room.occupy(genderKey(occupant, request), groupKey(occupant, request));
+            }
+        }
+
+        AllocationState state = new AllocationState();
+        for (RoomState room : rooms.values()) {
+            FloorState floor = state.floors.computeIfAbsent(room.floor, number -> new FloorState());
+            int occupied = room.beds - room.freeBeds.size();
+            floor.beds += room.beds;
+            floor.occupied += occupied;
+            if (room.freeBeds.isEmpty()) {
+                continue;
+            }
+            if (occupied == 0) {
+                floor.emptyRooms.add(room);
+                continue;
+            }
+            if (room.genderKey == null) {
+                // Occupied by students whose profile is gone; only join it when gender is not a rule
+                room.genderKey = request.isSameGender() ? MIXED : ANY_GENDER;
+            }
+            floor.openRooms.computeIfAbsent(room.genderKey, key -> new ArrayDeque<>()).add(room);
+            for (String group : room.groups) {
+                state.roomsByGroup.computeIfAbsent(room.genderKey + '\u0000' + group, key -> new ArrayDeque<>()).add(room);
+            }
+        }
+
+        students.values().stream()
+            .filter(student -> !assigned.contains(student.getId()))
+            .sorted(Comparator.comparing(AllocationCandidateView::getId))
+            .forEach(state.unassigned::add);
+        return state;
+    }
+
+    // Students sharing gender and group, largest buckets first so big groups get whole rooms
+    private static List<Bucket> buckets(List<AllocationCandidateView> students, AutoAllocationRequest request) {
+        Map<String, Bucket> buckets = new HashMap<>();
+        for (AllocationCandidateView student : students) {
+            String genderKey = genderKey(student, request);
+            String groupKey = groupKey(student, request);
+            buckets.computeIfAbsent(genderKey + '\u0000' + groupKey, key -> new Bucket(key, genderKey, groupKey)).members.add(student);
+        }
+        return buckets.values().stream()
+            .sorted(Comparator.comparingInt((Bucket bucket) -> -bucket.members.size()).thenComparing(bucket -> bucket.key))
+            .collect(Collectors.toList());
+    }
+
+    private static void place(AllocationState state, Bucket bucket, boolean balanceFloors, List<Placement> placements, List<AllocationCandidateView> unplaced) {
+        List<AllocationCandidateView> members = bucket.members;
+        int next = 0;
+        while (next < members.size()) {
+            RoomState room = nextRoom(state, bucket, balanceFloors);
+            if (room == null) {
+                break;
+            }
+            FloorState floor = state.floors.get(room.floor);
+            if (room.genderKey == null) {
+                room.genderKey = bucket.genderKey;
+                floor.openRooms.computeIfAbsent(bucket.genderKey, key -> new ArrayDeque<>()).add(room);
+            }
+            if (room.groups.add(bucket.groupKey)) {
+                state.roomsByGroup.computeIfAbsent(bucket.key, key -> new ArrayDeque<>()).add(room);
+            }
+            while (next < members.size() && !room.freeBeds.isEmpty()) {
+                placements.add(new Placement(members.get(next++), room, room.freeBeds.poll()));
+                floor.occupied++;
+            }
+        }
+        unplaced.addAll(members.subList(next, members.size()));
+    }
+
+    private static RoomState nextRoom(AllocationState state, Bucket bucket, boolean balanceFloors) {
+        // Rooms already holding this group come first so the group stays together
+        RoomState room = firstWithSpace(state.roomsByGroup.get(bucket.key));
+        if (room != null) {
+            return room;
+        }
+        // Then a fresh room, then leftover beds in rooms of the same gender, each on the best floor
+        FloorState floor = pickFloor(state, balanceFloors, candidate -> !candidate.emptyRooms.isEmpty());
+        if (floor != null) {
+            return floor.emptyRooms.poll();
+        }
+        floor = pickFloor(state, balanceFloors, candidate -> firstWithSpace(candidate.openRooms.get(bucket.genderKey)) != null);
+        return floor == null ? null : firstWithSpace(floor.openRooms.get(bucket.genderKey));
+    }
+
+    // Lowest eligible floor, or with balancing the eligible floor with the smallest share of occupied beds
+    private static FloorState pickFloor(AllocationState state, boolean balanceFloors, Predicate<FloorState> eligible) {
+        FloorState best = null;
+        for (FloorState floor : state.floors.values()) {
+            if (eligible.test(floor) && (best == null || (balanceFloors && floor.fillsBelow(best)))) {
+                best = floor;
+                if (!balanceFloors) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Head of the queue once full rooms are dropped; rooms are never re-queued so each is dropped once
+    private static RoomState firstWithSpace(Deque<RoomState> rooms) {
+        if (rooms == null) {
+            return null;
+        }
+        while (!rooms.isEmpty() && rooms.peek().freeBeds.isEmpty()) {
+            rooms.poll();
+        }
+        return rooms.peek();
+    }
+
+    private List<Placement> commit(List<Placement> placements) {
+        List<Placement> conflicts = new ArrayList<>();
+        for (int from = 0; from < placements.size(); from += batchSize) {
+            List<Placement> batch = placements.subList(from, Math.min(from + batchSize, placements.size()));
+            try {
+                conflicts.addAll(transactionTemplate.execute(status -> commitBatch(batch)));
+            } catch (OptimisticLockingFailureException | DataIntegrityViolationException e) {
+                // A bed or student changed since the plan was read; the batch rolled back as a whole
+                logger.warn("Allocation batch of {} beds hit a concurrent change, replaying bed by bed", batch.size());
+                for (Placement placement : batch) {
+                    if (!commitOne(placement)) {
+                        conflicts.add(placement);
+                    }
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    private List<Placement> commitBatch(List<Placement> batch) {
+        Map<Long, Bed> beds = new HashMap<>();
+        for (Bed bed : bedRepository.findAllById(batch.stream().map(placement -> placement.bedId).collect(Collectors.toList()))) {
+            beds.put(bed.getId(), bed);
+        }
+        List<Placement> claimed = new ArrayList<>();
+        List<Placement> conflicts = new ArrayList<>();
+        Map<Long, Integer> roomDeltas = new TreeMap<>();
+        for (Placement placement : batch) {
+            Bed bed = beds.get(placement.bedId);
+            if (bed == null || !"available".equals(bed.getStatus())) {
+                conflicts.add(placement);
+                continue;
+            }
+            bed.setStatus("occupied");
+            bed.setStudentId(placement.studentId);
+            roomDeltas.merge(placement.roomId, 1, Integer::sum);
+            claimed.add(placement);
+        }
+
+        // Versioned bed updates go out as JDBC batches; flush before the occupancy updates clear the context
+        bedRepository.flush();
+        roomDeltas.forEach(roomRepository::adjustOccupancy);
+        claimed.forEach(placement -> bedAvailabilityIndex.bedClaimed(placement.roomId, placement.bedNumber));
+        return conflicts;
+    }
+
+    private boolean commitOne(Placement placement) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                if (bedRepository.claimBedByNumber(placement.roomId, placement.bedNumber, placement.studentId) == 0) {
+                    return false;
+                }
+                roomRepository.adjustOccupancy(placement.roomId, 1);
+                bedAvailabilityIndex.bedClaimed(placement.roomId, placement.bedNumber);
+                return true;
+            }));
+        } catch (DataIntegrityViolationException e) {
+            // The student was given a bed by someone else in the meantime
+            return false;
+        }
+    }
+
+    private static Map<Integer, Map<String, Integer>> floorSummary(AllocationState state) {
+        Map<Integer, Map<String, Integer>> summary = new TreeMap<>();
+        state.floors.forEach((number, floor) -> {
+            Map<String, Integer> entry = new LinkedHashMap<>();
+            entry.put("total_beds", floor.beds);
+            entry.put("occupied_beds", floor.occupied);
+            summary.put(number, entry);
+        });
+        return summary;
+    }
+
+    private static String genderKey(AllocationCandidateView student, AutoAllocationRequest request) {
+        if (!request.isSameGender()) {
+            return ANY_GENDER;
+        }
+        String gender = student.getGender();
+        return gender == null || gender.isBlank() ? "unspecified" : gender.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String groupKey(AllocationCandidateView student, AutoAllocationRequest request) {
+        String stream = student.getStream() == null ? "" : student.getStream().trim();
+        String branch = student.getBranch() == null ? "" : student.getBranch().trim();
+        switch (request.getGroupBy()) {
+            case "stream":
+                return stream;
+            case "branch":
+                return branch;
+            case "stream_branch":
+                return stream + "/" + branch;
+            default:
+                return "";
+        }
+    }
+
+    private static final class AllocationState {
+        private final Map<Integer, FloorState> floors = new TreeMap<>();
+        private final Map<String, Deque<RoomState>> roomsByGroup = new HashMap<>();
+        private final List<AllocationCandidateView> unassigned = new ArrayList<>();
+    }
+
+    private static final class FloorState {
+        private final Deque<RoomState> emptyRooms = new ArrayDeque<>();
+        private final Map<String, Deque<RoomState>> openRooms = new HashMap<>();
+        private int beds;
+        private int occupied;
+
+        boolean fillsBelow(FloorState other) {
+            return (long) occupied * other.beds < (long) other.occupied * beds;
+        }
+    }
+
+    private static final class RoomState {
+        private final Long id;
+        private final String roomNumber;
+        private final int floor;
+        private final Deque<Bed> freeBeds = new ArrayDeque<>();
+        private final Set<String> groups = new HashSet<>();
+        private String genderKey;
+        private int beds;
+
+        RoomState(Room room) {
+            this.id = room.getId();
+            this.roomNumber = room.getRoomNumber();
+            this.floor = room.getFloor() == null ? 0 : room.getFloor();
+        }
+
+        void occupy(String gender, String group) {
+            genderKey = genderKey == null || genderKey.equals(gender) ? gender : MIXED;
+            groups.add(group);
+        }
+    }
+
+    private static final class Bucket {
+        private final String key;
+        private final String genderKey;
+        private final String groupKey;
+        private final List<AllocationCandidateView> members = new ArrayList<>();
+
+        Bucket(String key, String genderKey, String groupKey) {
+            this.key = key;
+            this.genderKey = genderKey;
+            this.groupKey = groupKey;
+        }
+    }
+
+    private static final class Placement {
+        private final Long studentId;
+        private final String rollNo;
+        private final Long roomId;
+        private final String roomNumber;
+        private final int floor;
+        private final Long bedId;
+        private final Integer bedNumber;
+
+        Placement(AllocationCandidateView student, RoomState room, Bed bed) {
+            this.studentId = student.getId();
+            this.rollNo = student.getRollNo();
+            this.roomId = room.id;
+            this.roomNumber = room.roomNumber;
+            this.floor = room.floor;
+            this.bedId = bed.getId();
+            this.bedNumber = bed.getBedNumber();
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("student_id", studentId);
+            entry.put("roll_no", rollNo);
+            entry.put("room_id", roomId);
+            entry.put("room_number", roomNumber);
+            entry.put("floor", floor);
+            entry.put("bed_number", bedNumber);
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.hostel.service;
+
+import com.hostel.model.Bed;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomChangeRequestRepository;
+import com.hostel.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Moves students between beds. A move frees the old bed, claims the new one and shifts both rooms'
+ * occupancy counters with conditional updates inside one transaction, so a lost race rolls the
+ * whole move back instead of leaving a half-moved student or drifting counters.
+ */
+@Service
+public class BedAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BedAllocationService.class);
+
+    private final BedRepository bedRepository;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final RoomRepository roomRepository;
+
+    private final RoomChangeRequestRepository roomChangeRequestRepository;
+
+    public BedAllocationService(BedRepository bedRepository, BedAvailabilityIndex bedAvailabilityIndex, RoomRepository roomRepository, RoomChangeRequestRepository roomChangeRequestRepository) {
+        this.bedRepository = bedRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.roomRepository = roomRepository;
+        this.roomChangeRequestRepository = roomChangeRequestRepository;
+    }
+
+    @Transactional
+    public void approveRoomChange(Long requestId, String processedBy) {
+        RoomChangeRequest request = roomChangeRequestRepository.findById(requestId)
+            .orElseThrow(() -> new RuntimeException("Room change request not found"));
+        approveRoomChange(request, bedRepository.findByStudentId(request.getStudentId()), processedBy);
+    }
+
+    // Approves a request whose student's bed the caller has already loaded. The conditional close,
+    // release and claim all recheck that state, so a stale request or bed fails the move instead of
+    // overwriting a concurrent change
+    @Transactional
+    public void approveRoomChange(RoomChangeRequest request, Optional<Bed> currentBed, String processedBy) {
+        // Closing the request first makes it the gate: a concurrent approval updates no row and stops here
+        if (!"pending".equals(request.getStatus())
+                || roomChangeRequestRepository.closePending(request.getId(), "approved", LocalDateTime.now(), processedBy) == 0) {
+            throw new RuntimeException("Request has already been processed");
+        }
+        
+        move(request.getStudentId(), currentBed, request.getRequestedRoomId(), request.getRequestedBedNumber());
+        logger.info("Approved room change request {}: student {} moved to room {} bed {}",
+            request.getId(), request.getStudentId(), request.getRequestedRoomId(), request.getRequestedBedNumber());
+    }
+
+    @Transactional
+    public void moveStudent(Long studentId, Long toRoomId, Integer toBedNumber) {
+        move(studentId, bedRepository.findByStudentId(studentId), toRoomId, toBedNumber);
+    }
+
+    private void move(Long studentId, Optional<Bed> currentBed, Long toRoomId, Integer toBedNumber) {
+        Long fromRoomId = currentBed.map(Bed::getRoomId).orElse(null);
+        
+        // Free the old bed first; the unique student index allows one bed per student. A release that
+        // changes nothing means the bed was freed concurrently and rolls the move back
+        if (currentBed.isPresent() && bedRepository.releaseBed(currentBed.get().getId(), studentId) == 0) {
+            throw new OptimisticLockingFailureException("Student " + studentId + " no longer holds bed " + currentBed.get().getId());
+        }
+
+        try {
+            if (bedRepository.claimBedByNumber(toRoomId, toBedNumber, studentId) == 0) {
+                throw new RuntimeException("Requested bed is no longer available");
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student is already assigned to a room");
+        }
+        
+        if (fromRoomId == null) {
+            roomRepository.adjustOccupancy(toRoomId, 1);
+        } else if (!fromRoomId.equals(toRoomId)) {
+            roomRepository.moveOccupancy(fromRoomId, toRoomId);
+        }
+        
+        // Applied after commit, so a rolled back move never reaches the index
+        currentBed.ifPresent(bed -> bedAvailabilityIndex.bedReleased(bed.getRoomId(), bed.getBedNumber()));
+        bedAvailabilityIndex.bedClaimed(toRoomId, toBedNumber);
+    }
+
+    // First bed for a student: the conditional claim and the room's occupancy counter commit together
+    @Transactional
+    public void assignBed(Long studentId, Long roomId, Integer bedNumber) {
+        try {
+            if (bedRepository.claimBedByNumber(roomId, bedNumber, studentId) == 0) {
+                throw new RuntimeException("Bed not available");
+            }
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student is already assigned to a room");
+        }
+        roomRepository.adjustOccupancy(roomId, 1);
+        bedAvailabilityIndex.bedClaimed(roomId, bedNumber);
+    }
+
+    // Frees whatever bed the student holds, decrementing its room's counter in the same transaction
+    @Transactional
+    public Optional<Bed> releaseStudentBed(Long studentId) {
+        Optional<Bed> bed = bedRepository.findByStudentId(studentId);
+        if (bed.isEmpty() || bedRepository.releaseBed(bed.get().getId(), studentId) == 0) {
+            return Optional.empty();
+        }
+        roomRepository.adjustOccupancy(bed.get().getRoomId(), -1);
+        bedAvailabilityIndex.bedReleased(bed.get().getRoomId(), bed.get().getBedNumber());
+        return bed;
+    }
+
+    // Approves a set of room changes that only work together, such as a swap cycle or a chain ending
+    // in a free bed. Every mover leaves their bed before anyone claims one, so beds can change hands in
+    // a circle; any step finding stale state rolls the whole set back with an optimistic-lock failure.
+    @Transactional
+    public void applyMoves(List<Move> moves, String processedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, Integer> roomDeltas = new TreeMap<>();
+        for (Move move : moves) {
+            if (roomChangeRequestRepository.closePending(move.requestId, "approved", now, processedBy) == 0) {
+                throw new OptimisticLockingFailureException("Room change request " + move.requestId + " was processed concurrently");
+            }
+            if (move.fromBedId != null) {
+                if (bedRepository.releaseBed(move.fromBedId, move.studentId) == 0) {
+                    throw new OptimisticLockingFailureException("Student " + move.studentId + " no longer holds bed " + move.fromBedId);
+                }
+                roomDeltas.merge(move.fromRoomId, -1, Integer::sum);
+            }
+        }
+        for (Move move : moves) {
+            try {
+                if (bedRepository.claimBedByNumber(move.toRoomId, move.toBedNumber, move.studentId) == 0) {
+                    throw new OptimisticLockingFailureException("Bed " + move.toBedNumber + " in room " + move.toRoomId + " is no longer available");
+                }
+            } catch (DataIntegrityViolationException e) {
+                throw new OptimisticLockingFailureException("Student " + move.studentId + " was assigned a bed concurrently", e);
+            }
+            roomDeltas.merge(move.toRoomId, 1, Integer::sum);
+        }
+        roomDeltas.forEach((roomId, delta) -> {
+            if (delta != 0) {
+                roomRepository.adjustOccupancy(roomId, delta);
+            }
+        });
+        
+        // Releases are registered before claims so a bed handed on within the set ends up occupied
+        moves.stream().filter(move -> move.fromBedId != null)
+            .forEach(move -> bedAvailabilityIndex.bedReleased(move.fromRoomId, move.fromBedNumber));
+        moves.forEach(move -> bedAvailabilityIndex.bedClaimed(move.toRoomId, move.toBedNumber));
+        logger.info("Applied {} linked room changes", moves.size());
+    }
+
+    /**
+     * One approved room change inside a linked set; the from fields are null for a student without a bed.
+     */
+    public static final class Move {
+        private final Long requestId;
+        private final Long studentId;
+        private final Long fromBedId;
+        private final Long fromRoomId;
+        private final Integer fromBedNumber;
+        private final Long toRoomId;
+        private final Integer toBedNumber;
+
+        public Move(Long requestId, Long studentId, Bed fromBed, Long toRoomId, Integer toBedNumber) {
+            this.requestId = requestId;
+            this.studentId = studentId;
+            this.fromBedId = fromBed != null ? fromBed.getId() : null;
+            this.fromRoomId = fromBed != null ? fromBed.getRoomId() : null;
+            this.fromBedNumber = fromBed != null ? fromBed.getBedNumber() : null;
+            this.toRoomId = toRoomId;
+            this.toBedNumber = toBedNumber;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("request_id", requestId);
+            entry.put("student_id", studentId);
+            entry.put("from_room_id", fromRoomId);
+            entry.put("from_bed_number", fromBedNumber);
+            entry.put("to_room_id", toRoomId);
+            entry.put("to_bed_number", toBedNumber);
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,426 @@
+package com.hostel.service;
+
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.ResourceVersions;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * In-process view of which beds are free. Each room keeps a bitset of its bed numbers and of the
+ * free ones, and rooms with space are listed per floor and per room type, so availability questions
+ * are answered without a query. Services report every claim, release and new room (applied after
+ * commit when a transaction is active); the whole index is rebuilt from the repositories at startup
+ * and every app.availability-index.reconcile-ms to pick up writes made outside this process. Changes
+ * applied while a rebuild is loading are also recorded and replayed onto the loaded state, so a
+ * snapshot read before they committed cannot undo them.
+ * Hostel-wide totals are running counters adjusted with every change, so statistics are O(1).
+ * Each applied change also evicts the cached room list and the changed room's details and bumps
+ * their resource versions.
+ * The conditional bed updates stay authoritative: the index only filters and ranks.
+ */
+@Component
+public class BedAvailabilityIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(BedAvailabilityIndex.class);
+
+    // Rough per-room cost of the slot, its map entry and the two BitSet headers
+    private static final long ROOM_OVERHEAD_BYTES = 200;
+
+    // Rough cost of one entry in a free list (tree node plus boxed id)
+    private static final long FREE_LIST_ENTRY_BYTES = 56;
+
+    private final RoomRepository roomRepository;
+
+    private final BedRepository bedRepository;
+
+    private final HostelCache hostelCache;
+
+    private final ResourceVersions resourceVersions;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, RoomSlot> rooms = new TreeMap<>();
+
+    private final Set<Long> roomsWithSpace = new TreeSet<>();
+
+    private final Map<Integer, Set<Long>> roomsWithSpaceByFloor = new HashMap<>();
+
+    private final Map<String, Set<Long>> roomsWithSpaceByType = new HashMap<>();
+
+    private final Map<String, Integer> freeBedsByType = new TreeMap<>();
+
+    private long totalBeds;
+
+    private long freeBedsTotal;
+
+    private int occupiedRooms;
+
+    private volatile boolean loaded;
+
+    // Changes applied since the running rebuild started loading, replayed onto its snapshot; null when no rebuild runs
+    private List<Consumer<Map<Long, RoomSlot>>> changesDuringRebuild;
+
+    public BedAvailabilityIndex(RoomRepository roomRepository, BedRepository bedRepository, HostelCache hostelCache, ResourceVersions resourceVersions,
+                                MeterRegistry meterRegistry) {
+        this.roomRepository = roomRepository;
+        this.bedRepository = bedRepository;
+        this.hostelCache = hostelCache;
+        this.resourceVersions = resourceVersions;
+        Gauge.builder("hostel.availability_index.memory", this, BedAvailabilityIndex::memoryFootprintBytes)
+            .baseUnit("bytes")
+            .description("Estimated heap used by the bed availability index")
+            .register(meterRegistry);
+        Gauge.builder("hostel.availability_index.free_beds", this, index -> index.read(() -> index.freeBedsTotal))
+            .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${app.availability-index.reconcile-ms:300000}",
+               fixedDelayString = "${app.availability-index.reconcile-ms:300000}")
+    public void reconcile() {
+        rebuild();
+    }
+
+    // Serialised, so at most one rebuild records changes at a time
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        recordChanges(new ArrayList<>());
+        List<Room> allRooms;
+        List<Bed> allBeds;
+        try {
+            allRooms = roomRepository.findAll();
+            allBeds = bedRepository.findAll();
+        } catch (RuntimeException e) {
+            recordChanges(null);
+            throw e;
+        }
+        Map<Long, RoomSlot> fresh = slotsFor(allRooms, allBeds);
+
+        List<Long> drifted = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            // The snapshot may predate changes committed while it loaded
+            changesDuringRebuild.forEach(change -> change.accept(fresh));
+            changesDuringRebuild = null;
+            if (loaded) {
+                for (RoomSlot slot : fresh.values()) {
+                    RoomSlot current = rooms.get(slot.id);
+                    if (current == null || !current.free.equals(slot.free)) {
+                        drifted.add(slot.id);
+                    }
+                }
+            }
+            rooms.clear();
+            roomsWithSpace.clear();
+            roomsWithSpaceByFloor.clear();
+            roomsWithSpaceByType.clear();
+            freeBedsByType.clear();
+            totalBeds = 0;
+            freeBedsTotal = 0;
+            occupiedRooms = 0;
+            fresh.values().forEach(this::put);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (!drifted.isEmpty()) {
+            // Written by another process, which could not reach this instance's caches or versions
+            drifted.forEach(this::evictRoomViews);
+            logger.warn("Bed availability index corrected {} rooms that drifted from the database", drifted.size());
+        }
+        logger.debug("Bed availability index rebuilt: {} rooms, {} beds in {} ms", allRooms.size(), allBeds.size(), System.currentTimeMillis() - start);
+    }
+
+    public void bedClaimed(Long roomId, Integer bedNumber) {
+        afterCommit(() -> {
+            updateBed(roomId, bedNumber, false);
+            evictRoomViews(roomId);
+        });
+    }
+
+    public void bedReleased(Long roomId, Integer bedNumber) {
+        afterCommit(() -> {
+            updateBed(roomId, bedNumber, true);
+            evictRoomViews(roomId);
+        });
+    }
+
+    public void roomsAdded(List<Room> newRooms, List<Bed> newBeds) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                slotsFor(newRooms, newBeds).values().forEach(this::put);
+                record(slots -> slots.putAll(slotsFor(newRooms, newBeds)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+            hostelCache.evict(HostelCache.ROOMS, "all");
+            resourceVersions.bump(ResourceVersions.ROOMS);
+        });
+    }
+
+    public boolean hasBed(Long roomId, Integer bedNumber) {
+        return read(() -> {
+            RoomSlot slot = rooms.get(roomId);
+            return slot != null && bedNumber != null && bedNumber >= 0 && slot.beds.get(bedNumber);
+        });
+    }
+
+    public boolean isFree(Long roomId, Integer bedNumber) {
+        return read(() -> {
+            RoomSlot slot = rooms.get(roomId);
+            return slot != null && bedNumber != null && bedNumber >= 0 && slot.free.get(bedNumber);
+        });
+    }
+
+    // Lowest free bed number of the room, or null when it is full
+    public Integer firstFreeBed(Long roomId) {
+        return read(() -> {
+            RoomSlot slot = rooms.get(roomId);
+            int bedNumber = slot == null ? -1 : slot.free.nextSetBit(0);
+            return bedNumber < 0 ? null : bedNumber;
+        });
+    }
+
+    public int freeBeds(Long roomId) {
+        return read(() -> {
+            RoomSlot slot = rooms.get(roomId);
+            return slot == null ? 0 : slot.freeCount;
+        });
+    }
+
+    public int occupiedBeds(Long roomId) {
+        return read(() -> {
+            RoomSlot slot = rooms.get(roomId);
+            return slot == null ? 0 : slot.bedCount - slot.freeCount;
+        });
+    }
+
+    // Rooms with at least one free bed in id order; null filters are not applied
+    public List<Long> roomsWithFreeBeds(Integer floor, String roomType) {
+        return read(() -> {
+            Set<Long> byFloor = floor == null ? null : roomsWithSpaceByFloor.getOrDefault(floor, Set.of());
+            Set<Long> byType = roomType == null ? null : roomsWithSpaceByType.getOrDefault(roomType, Set.of());
+            if (byFloor == null || byType == null) {
+                return new ArrayList<>(byFloor != null ? byFloor : byType != null ? byType : roomsWithSpace);
+            }
+            // Both filters: walk the smaller list, both are in id order
+            Set<Long> smaller = byFloor.size() <= byType.size() ? byFloor : byType;
+            Set<Long> other = smaller == byFloor ? byType : byFloor;
+            List<Long> result = new ArrayList<>();
+            for (Long roomId : smaller) {
+                if (other.contains(roomId)) {
+                    result.add(roomId);
+                }
+            }
+            return result;
+        });
+    }
+
+    // Free bed count per room type, for capacity planning and allocation
+    public Map<String, Integer> freeBedsByRoomType() {
+        return read(() -> new TreeMap<>(freeBedsByType));
+    }
+
+    public Map<String, Object> statistics() {
+        return read(() -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("totalRooms", rooms.size());
+            stats.put("occupiedRooms", occupiedRooms);
+            stats.put("totalBeds", totalBeds);
+            stats.put("occupiedBeds", totalBeds - freeBedsTotal);
+            stats.put("availableBeds", freeBedsTotal);
+            return stats;
+        });
+    }
+
+    public long memoryFootprintBytes() {
+        return read(() -> {
+            long bytes = 0;
+            for (RoomSlot slot : rooms.values()) {
+                bytes += ROOM_OVERHEAD_BYTES + (slot.beds.size() + slot.free.size()) / 8;
+            }
+            return bytes + 3L * roomsWithSpace.size() * FREE_LIST_ENTRY_BYTES;
+        });
+    }
+
+    private <T> T read(Supplier<T> query) {
+        if (!loaded) {
+            // Requests can arrive before the startup warm-up has run
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        lock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void updateBed(Long roomId, Integer bedNumber, boolean free) {
+        if (bedNumber == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // Recorded even for a room not indexed yet, which a running rebuild may be loading
+            record(slots -> {
+                RoomSlot snapshot = slots.get(roomId);
+                if (snapshot != null) {
+                    snapshot.setBed(bedNumber, free);
+                }
+            });
+            RoomSlot slot = rooms.get(roomId);
+            if (slot == null) {
+                // Unknown room: written by another process, the next reconcile picks it up
+                return;
+            }
+            count(slot, -1);
+            slot.setBed(bedNumber, free);
+            count(slot, 1);
+            updateFreeLists(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void recordChanges(List<Consumer<Map<Long, RoomSlot>>> changes) {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = changes;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Called under the write lock
+    private void record(Consumer<Map<Long, RoomSlot>> change) {
+        if (changesDuringRebuild != null) {
+            changesDuringRebuild.add(change);
+        }
+    }
+
+    private static Map<Long, RoomSlot> slotsFor(List<Room> rooms, List<Bed> beds) {
+        Map<Long, RoomSlot> slots = new HashMap<>();
+        for (Room room : rooms) {
+            slots.put(room.getId(), new RoomSlot(room));
+        }
+        for (Bed bed : beds) {
+            RoomSlot slot = slots.get(bed.getRoomId());
+            if (slot != null && bed.getBedNumber() != null) {
+                slot.setBed(bed.getBedNumber(), "available".equals(bed.getStatus()));
+            }
+        }
+        return slots;
+    }
+
+    private void evictRoomViews(Long roomId) {
+        hostelCache.evict(HostelCache.ROOMS, "all");
+        hostelCache.evict(HostelCache.ROOM_DETAILS, String.valueOf(roomId));
+        resourceVersions.bump(ResourceVersions.ROOMS, ResourceVersions.room(roomId));
+    }
+
+    private void put(RoomSlot slot) {
+        RoomSlot previous = rooms.put(slot.id, slot);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        count(slot, 1);
+        updateFreeLists(slot);
+    }
+
+    // Adds (sign 1) or removes (sign -1) a room's share of the hostel-wide counters
+    private void count(RoomSlot slot, int sign) {
+        totalBeds += sign * slot.bedCount;
+        freeBedsTotal += sign * slot.freeCount;
+        if (slot.bedCount > slot.freeCount) {
+            occupiedRooms += sign;
+        }
+        freeBedsByType.merge(String.valueOf(slot.roomType), sign * slot.freeCount, Integer::sum);
+    }
+
+    private void updateFreeLists(RoomSlot slot) {
+        if (slot.freeCount > 0) {
+            roomsWithSpace.add(slot.id);
+            roomsWithSpaceByFloor.computeIfAbsent(slot.floor, floor -> new TreeSet<>()).add(slot.id);
+            roomsWithSpaceByType.computeIfAbsent(slot.roomType, roomType -> new TreeSet<>()).add(slot.id);
+        } else {
+            roomsWithSpace.remove(slot.id);
+            Set<Long> byFloor = roomsWithSpaceByFloor.get(slot.floor);
+            if (byFloor != null) {
+                byFloor.remove(slot.id);
+            }
+            Set<Long> byType = roomsWithSpaceByType.get(slot.roomType);
+            if (byType != null) {
+                byType.remove(slot.id);
+            }
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private static final class RoomSlot {
+        private final Long id;
+        private final Integer floor;
+        private final String roomType;
+        private final BitSet beds = new BitSet();
+        private final BitSet free = new BitSet();
+        private int bedCount;
+        private int freeCount;
+
+        RoomSlot(Room room) {
+            this.id = room.getId();
+            this.floor = room.getFloor();
+            this.roomType = room.getRoomType();
+        }
+
+        void setBed(int bedNumber, boolean isFree) {
+            if (bedNumber < 0) {
+                return;
+            }
+            beds.set(bedNumber);
+            free.set(bedNumber, isFree);
+            bedCount = beds.cardinality();
+            freeCount = free.cardinality();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package com.hostel.service;
+
+import com.hostel.dto.BulkDecisionRequest;
+import com.hostel.model.Bed;
+import com.hostel.model.PersonalDetailsUpdateRequest;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.model.User;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.PersonalDetailsUpdateRequestRepository;
+import com.hostel.repository.RoomChangeRequestRepository;
+import com.hostel.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or rejects many requests in one call, selected by id or as every pending request older
+ * than a cutoff. Requests and students are loaded with one query each and every decision is written
+ * in a single transaction, flushed as versioned JDBC batches; a conflicting concurrent edit rolls the
+ * call back and OptimisticRetry replays it. Room change approvals load requests, students and their
+ * current beds up front too, but each bed move keeps its own transaction: two requests in a call may
+ * want the same bed, and a bed lost to either of them or to a concurrent assignment fails only that
+ * request instead of rolling back every move. Every id gets its own outcome.
+ */
+@Service
+public class BulkDecisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDecisionService.class);
+
+    private final RoomChangeRequestRepository roomChangeRequestRepository;
+
+    private final PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository;
+
+    private final UserRepository userRepository;
+
+    private final BedRepository bedRepository;
+
+    private final BedAllocationService bedAllocationService;
+
+    private final OptimisticRetry optimisticRetry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxRequests;
+
+    public BulkDecisionService(RoomChangeRequestRepository roomChangeRequestRepository, PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository,
+                               UserRepository userRepository, BedRepository bedRepository, BedAllocationService bedAllocationService, OptimisticRetry optimisticRetry,
+                               TransactionTemplate transactionTemplate, @Value("${app.bulk-decisions.max-requests:1000}") int maxRequests) {
+        this.roomChangeRequestRepository = roomChangeRequestRepository;
+        this.personalDetailsUpdateRequestRepository = personalDetailsUpdateRequestRepository;
+        this.userRepository = userRepository;
+        this.bedRepository = bedRepository;
+        this.bedAllocationService = bedAllocationService;
+        this.optimisticRetry = optimisticRetry;
+        this.transactionTemplate = transactionTemplate;
+        this.maxRequests = maxRequests;
+    }
+
+    public Map<String, Object> decideRoomChangeRequests(BulkDecisionRequest decision, boolean approve) {
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> results;
+        if (approve) {
+            results = new ArrayList<>();
+            Map<Long, RoomChangeRequest> requests = selectRoomChangeRequests(decision);
+            List<Long> studentIds = requests.values().stream()
+                .filter(request -> request != null && "pending".equals(request.getStatus()))
+                .map(RoomChangeRequest::getStudentId)
+                .distinct()
+                .collect(Collectors.toList());
+            Set<Long> students = new HashSet<>();
+            userRepository.findAllById(studentIds).forEach(student -> students.add(student.getId()));
+            Map<Long, Bed> currentBeds = new HashMap<>();
+            bedRepository.findByStudentIdIn(studentIds).forEach(bed -> currentBeds.put(bed.getStudentId(), bed));
+
+            for (Long id : requests.keySet()) {
+                RoomChangeRequest request = requests.get(id);
+                if (request == null || !"pending".equals(request.getStatus())) {
+                    results.add(skipped(id, request, "Room change request not found"));
+                    continue;
+                }
+                if (!students.contains(request.getStudentId())) {
+                    results.add(outcome(id, "failed", "Student not found"));
+                    continue;
+                }
+                try {
+                    bedAllocationService.approveRoomChange(request, Optional.ofNullable(currentBeds.get(request.getStudentId())), "warden");
+                    results.add(outcome(id, "approved", null));
+                } catch (RuntimeException e) {
+                    results.add(outcome(id, "failed", e.getMessage()));
+                }
+            }
+        } else {
+            results = optimisticRetry.execute("room_change.bulk_reject", () -> transactionTemplate.execute(status -> {
+                List<Map<String, Object>> outcomes = new ArrayList<>();
+                LocalDateTime now = LocalDateTime.now();
+                selectRoomChangeRequests(decision).forEach((id, request) -> {
+                    if (request == null || !"pending".equals(request.getStatus())) {
+                        outcomes.add(skipped(id, request, "Room change request not found"));
+                        return;
+                    }
+                    request.setStatus("rejected");
+                    request.setProcessedAt(now);
+                    request.setProcessedBy("warden");
+                    outcomes.add(outcome(id, "rejected", null));
+                });
+                return outcomes;
+            }));
+        }
+        return report("room change", approve, results, start);
+    }
+
+    public Map<String, Object> decidePersonalDetailsRequests(BulkDecisionRequest decision, boolean approve) {
+        long start = System.currentTimeMillis();
+        String operation = approve ? "personal_details.bulk_approve" : "personal_details.bulk_reject";
+        List<Map<String, Object>> results = optimisticRetry.execute(operation, () -> transactionTemplate.execute(status -> {
+            Map<Long, PersonalDetailsUpdateRequest> requests = selectPersonalDetailsRequests(decision);
+            Map<Long, User> students = new HashMap<>();
+            if (approve) {
+                List<Long> studentIds = requests.values().stream()
+                    .filter(request -> request != null && "pending".equals(request.getStatus()))
+                    .map(PersonalDetailsUpdateRequest::getStudentId)
+                    .distinct()
+                    .collect(Collectors.toList());
+                userRepository.findAllById(studentIds).forEach(student -> students.put(student.getId(), student));
+            }
+
+            // Changes land on managed entities; the commit flushes them as batched versioned updates
+            List<Map<String, Object>> outcomes = new ArrayList<>();
+            LocalDateTime now = LocalDateTime.now();
+            requests.forEach((id, request) -> {
+                if (request == null || !"pending".equals(request.getStatus())) {
+                    outcomes.add(skipped(id, request, "Personal details update request not found"));
+                    return;
+                }
+                if (approve) {
+                    User student = students.get(request.getStudentId());
+                    if (student == null) {
+                        outcomes.add(outcome(id, "failed", "Student not found"));
+                        return;
+                    }
+                    StudentService.copyPersonalDetails(request, student);
+                }
+                request.setStatus(approve ? "approved" : "rejected");
+                request.setProcessedAt(now);
+                request.setProcessedBy("warden");
+                request.setWardenComments(decision.getWardenComments());
+                outcomes.add(outcome(id, request.getStatus(), null));
+            });
+            return outcomes;
+        }));
+        return report("personal details", approve, results, start);
+    }
+
+    // Requested ids in the caller's order, a missing request mapped to null
+    private Map<Long, RoomChangeRequest> selectRoomChangeRequests(BulkDecisionRequest decision) {
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            return byRequestedId(decision, roomChangeRequestRepository.findAllById(checkedIds(decision)), RoomChangeRequest::getId);
+        }
+        return byRequestedId(decision, roomChangeRequestRepository.findByStatusAndRequestedAtBefore("pending", checkedCutoff(decision),
+            PageRequest.of(0, maxRequests, Sort.by("requestedAt", "id"))), RoomChangeRequest::getId);
+    }
+
+    private Map<Long, PersonalDetailsUpdateRequest> selectPersonalDetailsRequests(BulkDecisionRequest decision) {
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            return byRequestedId(decision, personalDetailsUpdateRequestRepository.findAllById(checkedIds(decision)), PersonalDetailsUpdateRequest::getId);
+        }
+        return byRequestedId(decision, personalDetailsUpdateRequestRepository.findByStatusAndCreatedAtBefore("pending", checkedCutoff(decision),
+            PageRequest.of(0, maxRequests, Sort.by("createdAt", "id"))), PersonalDetailsUpdateRequest::getId);
+    }
+
+    private <T> Map<Long, T> byRequestedId(BulkDecisionRequest decision, List<T> found, Function<T, Long> idOf) {
+        Map<Long, T> byId = new LinkedHashMap<>();
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            decision.getIds().forEach(id -> byId.put(id, null));
+        }
+        found.forEach(request -> byId.put(idOf.apply(request), request));
+        return byId;
+    }
+
+    private List<Long> checkedIds(BulkDecisionRequest decision) {
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(decision.getIds()));
+        if (ids.size() > maxRequests) {
+            throw new RuntimeException("Bulk decisions are limited to " + maxRequests + " requests per call");
+        }
+        return ids;
+    }
+
+    private static LocalDateTime checkedCutoff(BulkDecisionRequest decision) {
+        if (decision.getOlderThan() == null) {
+            throw new RuntimeException("Provide ids or older_than");
+        }
+        return decision.getOlderThan();
+    }
+
+    private static Map<String, Object> skipped(Object id, Object request, String notFound) {
+        return request == null ? outcome(id, "not_found", notFound) : outcome(id, "skipped", "Request has already been processed");
+    }
+
+    private static Map<String, Object> outcome(Object id, String outcome, String error) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("request_id", id);
+        entry.put("outcome", outcome);
+        if (error != null) {
+            entry.put("error", error);
+        }
+        return entry;
+    }
+
+    private static Map<String, Object> report(String kind, boolean approve, List<Map<String, Object>> results, long start) {
+        String decided = approve ? "approved" : "rejected";
+        long succeeded = results.stream().filter(result -> decided.equals(result.get("outcome"))).count();
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Bulk {} of {} requests: {} of {} {} in {} ms", approve ? "approval" : "rejection", kind, succeeded, results.size(), decided, elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requested", results.size());
+        response.put(decided, succeeded);
+        response.put("unchanged", results.size() - succeeded);
+        response.put("elapsed_ms", elapsed);
+        response.put("results", results);
+        return response;
+    }
+}
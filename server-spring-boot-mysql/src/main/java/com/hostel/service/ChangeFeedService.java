@@ -0,0 +1,227 @@
+package com.hostel.service;
+
+import com.hostel.model.DeletedRecord;
+import com.hostel.repository.DeletedRecordRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync: a client passes back the since cursor from its previous call and receives only the
+ * records inserted, updated or deleted after it, so a poll costs in proportion to the changes rather
+ * than the table. Upserts are read in (changed_at, id) order over each table's changed_at index, and
+ * deletes from the tombstones in deleted_records. Without since the feed starts from the beginning,
+ * which doubles as the initial load.
+ *
+ * changed_at is stamped when a row is written, not when its transaction commits, so a slow
+ * transaction can commit a row stamped before one a client has already read past. The cursor
+ * therefore never advances beyond the settle window behind the database clock: newer rows are still
+ * returned but are sent again on the next poll, so clients apply changes as idempotent upserts by id.
+ * A cursor older than the tombstone retention may have missed deletes and is rejected; the client
+ * reloads by omitting since.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public static final String ROOMS = "rooms";
+    public static final String BEDS = "beds";
+    public static final String STUDENTS = "students";
+    public static final String ROOM_CHANGE_REQUESTS = "room-change-requests";
+    public static final String PERSONAL_DETAILS_UPDATE_REQUESTS = "personal-details-update-requests";
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Feed name -> entity and the condition selecting the rows it covers
+    private static final Map<String, Feed> FEEDS = Map.of(
+        ROOMS, new Feed("Room", null),
+        BEDS, new Feed("Bed", null),
+        STUDENTS, new Feed("User", "e.role = 'student'"),
+        ROOM_CHANGE_REQUESTS, new Feed("RoomChangeRequest", null),
+        PERSONAL_DETAILS_UPDATE_REQUESTS, new Feed("PersonalDetailsUpdateRequest", null));
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final DeletedRecordRepository deletedRecordRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Duration settleWindow;
+
+    private final Duration tombstoneRetention;
+
+    public ChangeFeedService(DeletedRecordRepository deletedRecordRepository, JdbcTemplate jdbcTemplate,
+                             @Value("${app.sync.settle-window:5s}") Duration settleWindow,
+                             @Value("${app.sync.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.deletedRecordRepository = deletedRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> getChanges(String feedName, String since, int limit) {
+        Feed feed = FEEDS.get(feedName);
+        if (feed == null) {
+            throw new RuntimeException("Unknown change feed: " + feedName + ", expected one of " + FEEDS.keySet());
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Cursor cursor = since == null || since.isBlank() ? Cursor.START : Cursor.decode(since);
+
+        LocalDateTime now = databaseNow();
+        if (cursor.deleted.at != null && cursor.deleted.at.isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("The since cursor is older than the " + tombstoneRetention.toDays()
+                + " day tombstone retention; reload without since");
+        }
+        LocalDateTime settled = now.minus(settleWindow);
+
+        Slice changes = read(feed.entity, "changedAt", feed.filter, Map.of(), cursor.changes, settled, pageSize);
+        Slice deleted = read("DeletedRecord", "deletedAt", "e.entityType = :entityType", Map.of("entityType", feedName),
+            cursor.deleted, settled, pageSize);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("changes", changes.items);
+        response.put("deleted", deleted.items.stream()
+            .map(record -> ((DeletedRecord) record).getEntityId())
+            .collect(Collectors.toList()));
+        response.put("next_since", new Cursor(changes.next, deleted.next).encode());
+        response.put("has_more", changes.hasMore || deleted.hasMore);
+        return response;
+    }
+
+    // Called inside the deleting transaction, so the tombstones commit or roll back with the delete
+    public void recordDeleted(String feedName, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            deletedRecordRepository.saveAll(ids.stream()
+                .map(id -> new DeletedRecord(feedName, id))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.prune-ms:3600000}",
+               fixedDelayString = "${app.sync.prune-ms:3600000}")
+    public void pruneTombstones() {
+        int removed = deletedRecordRepository.deleteByDeletedAtBefore(databaseNow().minus(tombstoneRetention));
+        if (removed > 0) {
+            logger.info("Pruned {} change feed tombstones older than {}", removed, tombstoneRetention);
+        }
+    }
+
+    // Settled rows advance the cursor; once they run out, rows still inside the settle window fill the
+    // rest of the page and the cursor stops at the settle line
+    private Slice read(String entity, String timeField, String filter, Map<String, Object> filterParams,
+                       Position after, LocalDateTime settled, int pageSize) {
+        List<Object[]> rows = fetch(entity, timeField, filter, filterParams, after, settled, pageSize + 1);
+        List<Object> items = new ArrayList<>();
+        if (rows.size() > pageSize) {
+            rows.subList(0, pageSize).forEach(row -> items.add(row[0]));
+            Object[] last = rows.get(pageSize - 1);
+            return new Slice(items, new Position((LocalDateTime) last[1], (Long) last[2]), true);
+        }
+        rows.forEach(row -> items.add(row[0]));
+        // A cursor already past the settle line, e.g. after the database clock stepped back, stays put
+        Position settleLine = after.at != null && after.at.isAfter(settled) ? after : new Position(settled, null);
+        if (rows.size() < pageSize) {
+            fetch(entity, timeField, filter, filterParams, settleLine, null, pageSize - rows.size())
+                .forEach(row -> items.add(row[0]));
+        }
+        return new Slice(items, settleLine, false);
+    }
+
+    private List<Object[]> fetch(String entity, String timeField, String filter, Map<String, Object> filterParams,
+                                 Position after, LocalDateTime until, int maxResults) {
+        String time = "e." + timeField;
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> params = new HashMap<>(filterParams);
+        if (filter != null) {
+            conditions.add(filter);
+        }
+        if (after.at != null) {
+            conditions.add(after.id == null ? time + " > :afterAt" : "(" + time + " > :afterAt OR (" + time + " = :afterAt AND e.id > :afterId))");
+            params.put("afterAt", after.at);
+            if (after.id != null) {
+                params.put("afterId", after.id);
+            }
+        }
+        if (until != null) {
+            conditions.add(time + " <= :until");
+            params.put("until", until);
+        }
+        String jpql = "SELECT e, " + time + ", e.id FROM " + entity + " e"
+            + (conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions))
+            + " ORDER BY " + time + ", e.id";
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(maxResults).getResultList();
+    }
+
+    private LocalDateTime databaseNow() {
+        return jdbcTemplate.queryForObject("SELECT CURRENT_TIMESTAMP(6)", LocalDateTime.class);
+    }
+
+    public static class CursorExpiredException extends RuntimeException {
+        public CursorExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    private record Feed(String entity, String filter) {}
+
+    // A null at means from the beginning; a null id means everything stamped at exactly at was seen
+    private record Position(LocalDateTime at, Long id) {}
+
+    private record Slice(List<Object> items, Position next, boolean hasMore) {}
+
+    // Opaque to clients: the read positions of the upsert and tombstone streams, base64url encoded
+    private record Cursor(Position changes, Position deleted) {
+
+        static final Cursor START = new Cursor(new Position(null, null), new Position(null, null));
+
+        static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("expected 4 fields");
+                }
+                return new Cursor(position(parts[0], parts[1]), position(parts[2], parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid since cursor");
+            }
+        }
+
+        String encode() {
+            String raw = String.join("|", text(changes.at), text(changes.id), text(deleted.at), text(deleted.id));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Position position(String at, String id) {
+            return new Position(at.isEmpty() ? null : LocalDateTime.parse(at), id.isEmpty() ? null : Long.valueOf(id));
+        }
+
+        private static String text(Object value) {
+            return value == null ? "" : value.toString();
+        }
+    }
+}
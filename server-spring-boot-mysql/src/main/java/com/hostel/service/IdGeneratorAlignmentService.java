@@ -0,0 +1,61 @@
+package com.hostel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the pooled table generators ahead of ids that were assigned by AUTO_INCREMENT before the
+ * entities moved to @TableGenerator. The pooled optimizer hands out the block (next_val - 50, next_val],
+ * so next_val must stay at least one allocation above the highest existing id.
+ */
+@Service
+public class IdGeneratorAlignmentService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdGeneratorAlignmentService.class);
+    
+    // Must match allocationSize of the @TableGenerator mappings
+    private static final int ALLOCATION_SIZE = 50;
+    
+    // Generator row (pkColumnValue) -> table whose ids it assigns
+    private static final Map<String, String> GENERATED_TABLES = new LinkedHashMap<>();
+    
+    static {
+        GENERATED_TABLES.put("users", "users");
+        GENERATED_TABLES.put("rooms", "rooms");
+        GENERATED_TABLES.put("beds", "beds");
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorAlignmentService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional
+    public void alignGenerators() {
+        GENERATED_TABLES.forEach((entity, table) -> {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            long target = maxId + 2L * ALLOCATION_SIZE;
+            
+            int updated = jdbcTemplate.update(
+                "UPDATE id_generators SET next_val = ? WHERE entity = ? AND next_val < ?",
+                target, entity, maxId + ALLOCATION_SIZE);
+            if (updated > 0) {
+                logger.info("Advanced id generator '{}' to {} (max id {})", entity, target, maxId);
+                return;
+            }
+            
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_generators WHERE entity = ?", Integer.class, entity);
+            if (rows == 0 && maxId > 0) {
+                jdbcTemplate.update("INSERT INTO id_generators (entity, next_val) VALUES (?, ?)", entity, target);
+                logger.info("Seeded id generator '{}' at {} (max id {})", entity, target, maxId);
+            }
+        });
+    }
+}
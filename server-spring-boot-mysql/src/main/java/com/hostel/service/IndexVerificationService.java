@@ -0,0 +1,69 @@
+package com.hostel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Checks at startup that the secondary indexes the hot queries rely on exist, so a schema
+ * that drifted from the entity definitions fails the boot instead of degrading to table scans.
+ */
+@Service
+public class IndexVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexVerificationService.class);
+    
+    private static final Map<String, List<String>> EXPECTED_INDEXES = new LinkedHashMap<>();
+    
+    static {
+        EXPECTED_INDEXES.put("rooms", List.of("idx_rooms_changed_at"));
+        EXPECTED_INDEXES.put("beds", List.of("uk_beds_student_id", "idx_beds_room_bed_number", "idx_beds_room_status", "idx_beds_changed_at"));
+        EXPECTED_INDEXES.put("users", List.of("idx_users_role_stream_branch", "idx_users_role_stream_id", "idx_users_role_branch_id",
+            "idx_users_role_changed_at"));
+        EXPECTED_INDEXES.put("room_change_requests", List.of("idx_room_change_requests_status", "idx_room_change_requests_student_status",
+            "idx_room_change_requests_changed_at"));
+        EXPECTED_INDEXES.put("personal_details_update_requests", List.of("idx_personal_details_requests_status", "idx_personal_details_requests_student_status",
+            "idx_personal_details_requests_changed_at"));
+        EXPECTED_INDEXES.put("deleted_records", List.of("idx_deleted_records_type_deleted_at"));
+    }
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    private final boolean enabled;
+
+    public IndexVerificationService(JdbcTemplate jdbcTemplate, @Value("${app.index-verification.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public void verifyIndexes() {
+        if (!enabled) {
+            logger.info("Index verification disabled");
+            return;
+        }
+        
+        Set<String> present = new HashSet<>(jdbcTemplate.queryForList(
+            "SELECT DISTINCT CONCAT(LOWER(table_name), '.', LOWER(index_name)) FROM information_schema.statistics " +
+            "WHERE table_schema = DATABASE()", String.class));
+        
+        List<String> missing = new ArrayList<>();
+        EXPECTED_INDEXES.forEach((table, indexes) -> indexes.stream()
+            .map(index -> table + "." + index)
+            .filter(qualified -> !present.contains(qualified.toLowerCase()))
+            .forEach(missing::add));
+        
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + String.join(", ", missing));
+        }
+        logger.info("Verified {} expected indexes", EXPECTED_INDEXES.values().stream().mapToInt(List::size).sum());
+    }
+}
@@ -1,19 +1,45 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hostel.dto.UserLoginView;
 import com.hostel.model.*;
 import com.hostel.repository.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.metamodel.SingularAttribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.util.ReflectionUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Seeds the database from database.json. The file is read with a streaming parser one array
+ * element at a time and written with one saveAll per batch, so memory use does not grow with
+ * the dump size. The dump carries MongoDB-style string ids; they are mapped to the generated
+ * ids as users and rooms are saved, which lets beds and requests keep their references.
+ * Sections are expected in dump order (users and rooms before beds and requests).
+ */
 @Service
 public class JsonDataLoaderService {
 
@@ -26,6 +52,10 @@ public class JsonDataLoaderService {
     private final RoomChangeRequestRepository roomChangeRequestRepository;
     private final PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository;
     private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public JsonDataLoaderService(
             UserRepository userRepository,
@@ -33,13 +63,15 @@ public class JsonDataLoaderService {
             BedRepository bedRepository,
             FoodMenuRepository foodMenuRepository,
             RoomChangeRequestRepository roomChangeRequestRepository,
-            PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository) {
+            PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository,
+            @Value("${app.data-loader.batch-size:1000}") int batchSize) {
         this.userRepository = userRepository;
         this.roomRepository = roomRepository;
         this.bedRepository = bedRepository;
         this.foodMenuRepository = foodMenuRepository;
         this.roomChangeRequestRepository = roomChangeRequestRepository;
         this.personalDetailsUpdateRequestRepository = personalDetailsUpdateRequestRepository;
+        this.batchSize = batchSize;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
@@ -53,252 +85,354 @@ public class JsonDataLoaderService {
             }
 
             logger.info("📊 Loading database from JSON file...");
-            
-            JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
-            
-            // Load core data (skip requests for now due to ID mapping complexity)
-            loadUsers(rootNode.get("users"));
-            loadRooms(rootNode.get("rooms"));
-            loadBeds(rootNode.get("beds"));
-            loadFoodMenu(rootNode.get("food_menu"));
-            // Skip loading requests for MySQL version due to auto-generated ID complexity
-            // loadRoomChangeRequests(rootNode.get("room_change_requests"));
-            // loadPersonalDetailsUpdateRequests(rootNode.get("personal_details_update_requests"));
-            
+            long start = System.currentTimeMillis();
+
+            // Legacy (dump) id -> generated id
+            Map<String, Long> userIds = new HashMap<>();
+            Map<String, Long> roomIds = new HashMap<>();
+
+            try (InputStream inputStream = resource.getInputStream();
+                 JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("database.json must contain a JSON object");
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String section = parser.getCurrentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (section) {
+                        case "users" -> loadUsers(parser, userIds);
+                        case "rooms" -> loadRooms(parser, roomIds);
+                        case "beds" -> loadBeds(parser, userIds, roomIds);
+                        case "food_menu" -> loadFoodMenu(parser);
+                        case "room_change_requests" -> loadRoomChangeRequests(parser, userIds, roomIds);
+                        case "personal_details_update_requests" -> loadPersonalDetailsUpdateRequests(parser, userIds);
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+
+            logger.info("   JSON load finished in {} ms", System.currentTimeMillis() - start);
             displayStatistics();
-            
+
         } catch (IOException e) {
             logger.error("❌ Error loading data from JSON: {}", e.getMessage(), e);
         }
     }
 
-    private void loadUsers(JsonNode usersNode) {
-        if (usersNode == null || !usersNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode userNode : usersNode) {
-            try {
-                User user = new User();
-                // Don't set ID - let JPA auto-generate for MySQL
-                user.setUsername(userNode.get("username").asText());
-                
-                // Check if user already exists
-                if (userRepository.findByUsername(user.getUsername()).isPresent()) {
-                    continue;
-                }
-                
-                user.setPassword(userNode.get("password").asText());
-                user.setRole(userNode.get("role").asText());
-                user.setFullName(userNode.get("full_name").asText());
-                user.setEmail(userNode.get("email").asText());
-                user.setPhone(userNode.get("phone").asText());
-                
-                if (userNode.has("date_of_birth") && !userNode.get("date_of_birth").isNull()) {
-                    user.setDateOfBirth(LocalDate.parse(userNode.get("date_of_birth").asText()));
-                }
-                if (userNode.has("gender")) user.setGender(userNode.get("gender").asText());
-                if (userNode.has("aadhaar_id")) user.setAadhaarId(userNode.get("aadhaar_id").asText());
-                if (userNode.has("roll_no")) user.setRollNo(userNode.get("roll_no").asText());
-                if (userNode.has("stream")) user.setStream(userNode.get("stream").asText());
-                if (userNode.has("branch")) user.setBranch(userNode.get("branch").asText());
-                if (userNode.has("address_line1")) user.setAddressLine1(userNode.get("address_line1").asText());
-                if (userNode.has("address_line2")) user.setAddressLine2(userNode.get("address_line2").asText());
-                if (userNode.has("city")) user.setCity(userNode.get("city").asText());
-                if (userNode.has("state")) user.setState(userNode.get("state").asText());
-                if (userNode.has("postal_code")) user.setPostalCode(userNode.get("postal_code").asText());
-                if (userNode.has("guardian_name")) user.setGuardianName(userNode.get("guardian_name").asText());
-                if (userNode.has("guardian_phone")) user.setGuardianPhone(userNode.get("guardian_phone").asText());
-                if (userNode.has("guardian_address")) user.setGuardianAddress(userNode.get("guardian_address").asText());
-                if (userNode.has("first_login")) user.setFirstLogin(userNode.get("first_login").asBoolean());
-                if (userNode.has("created_at")) {
-                    user.setCreatedAt(LocalDateTime.parse(userNode.get("created_at").asText()));
+    private void loadUsers(JsonParser parser, Map<String, Long> userIds) throws IOException {
+        // One query for every existing username instead of a lookup per user
+        Map<String, Long> existingUsers = new HashMap<>();
+        for (UserLoginView view : userRepository.findAllProjectedBy()) {
+            existingUsers.put(view.getUsername(), view.getId());
+        }
+        Set<String> seenUsernames = new HashSet<>(existingUsers.keySet());
+
+        EntityBatch<User> batch = new EntityBatch<>("users", userRepository::saveAll,
+            (legacyId, user) -> userIds.put(legacyId, user.getId()));
+        forEachElement(parser, "user", userNode -> {
+            String username = userNode.get("username").asText();
+            if (!seenUsernames.add(username)) {
+                Long existingId = existingUsers.get(username);
+                if (existingId != null && text(userNode, "id") != null) {
+                    userIds.put(text(userNode, "id"), existingId);
                 }
-                
-                userRepository.save(user);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading user: {}", e.getMessage());
+                return;
             }
-        }
-        logger.info("   - Users: {} loaded", loaded);
+            batch.add(text(userNode, "id"), toUser(userNode));
+        });
+        batch.flush();
+        logger.info("   - Users: {} loaded", batch.loaded);
     }
 
-    private void loadRooms(JsonNode roomsNode) {
-        if (roomsNode == null || !roomsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode roomNode : roomsNode) {
-            try {
-                Room room = new Room();
-                // Don't set ID - let JPA auto-generate for MySQL
-                room.setRoomNumber(roomNode.get("room_number").asText());
-                
-                // Check if room already exists
-                if (roomRepository.findByRoomNumber(room.getRoomNumber()).isPresent()) {
-                    continue;
-                }
-                
-                room.setFloor(roomNode.get("floor").asInt());
-                room.setCapacity(roomNode.get("capacity").asInt());
-                room.setOccupiedBeds(roomNode.get("occupied_beds").asInt());
-                room.setRoomType(roomNode.get("room_type").asText());
-                if (roomNode.has("created_at")) {
-                    room.setCreatedAt(LocalDateTime.parse(roomNode.get("created_at").asText()));
+    private void loadRooms(JsonParser parser, Map<String, Long> roomIds) throws IOException {
+        Map<String, Long> existingRooms = new HashMap<>();
+        for (Room room : roomRepository.findAll()) {
+            existingRooms.put(room.getRoomNumber(), room.getId());
+        }
+        Set<String> seenRoomNumbers = new HashSet<>(existingRooms.keySet());
+
+        EntityBatch<Room> batch = new EntityBatch<>("rooms", roomRepository::saveAll,
+            (legacyId, room) -> roomIds.put(legacyId, room.getId()));
+        forEachElement(parser, "room", roomNode -> {
+            String roomNumber = roomNode.get("room_number").asText();
+            if (!seenRoomNumbers.add(roomNumber)) {
+                Long existingId = existingRooms.get(roomNumber);
+                if (existingId != null && text(roomNode, "id") != null) {
+                    roomIds.put(text(roomNode, "id"), existingId);
                 }
-                
-                roomRepository.save(room);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading room: {}", e.getMessage());
+                return;
+            }
+
+            Room room = new Room();
+            room.setRoomNumber(roomNumber);
+            room.setFloor(roomNode.get("floor").asInt());
+            room.setCapacity(roomNode.get("capacity").asInt());
+            room.setOccupiedBeds(roomNode.get("occupied_beds").asInt());
+            room.setRoomType(roomNode.get("room_type").asText());
+            if (roomNode.hasNonNull("created_at")) {
+                room.setCreatedAt(LocalDateTime.parse(roomNode.get("created_at").asText()));
             }
+            batch.add(text(roomNode, "id"), room);
+        });
+        batch.flush();
+        logger.info("   - Rooms: {} loaded", batch.loaded);
+    }
+
+    private void loadBeds(JsonParser parser, Map<String, Long> userIds, Map<String, Long> roomIds) throws IOException {
+        EntityBatch<Bed> batch = new EntityBatch<>("beds", bedRepository::saveAll, null);
+        int[] unresolved = {0};
+        forEachElement(parser, "bed", bedNode -> {
+            Long roomId = roomIds.get(text(bedNode, "room_id"));
+            if (roomId == null) {
+                unresolved[0]++;
+                return;
+            }
+
+            Bed bed = new Bed(roomId, bedNode.get("bed_number").asInt());
+            Long studentId = userIds.get(text(bedNode, "student_id"));
+            if (studentId != null) {
+                bed.setStudentId(studentId);
+                bed.setStatus(bedNode.hasNonNull("status") ? bedNode.get("status").asText() : "occupied");
+            }
+            batch.add(null, bed);
+        });
+        batch.flush();
+        logger.info("   - Beds: {} loaded", batch.loaded);
+        if (unresolved[0] > 0) {
+            logger.warn("   - Beds: {} skipped (room not found)", unresolved[0]);
         }
-        logger.info("   - Rooms: {} loaded", loaded);
     }
 
-    private void loadBeds(JsonNode bedsNode) {
-        if (bedsNode == null || !bedsNode.isArray()) return;
-        
-        int loaded = 0;
-        int bedIndex = 0;
-        for (JsonNode bedNode : bedsNode) {
-            try {
-                Bed bed = new Bed();
-                // Don't set ID - let JPA auto-generate for MySQL
-                // Calculate which room this bed belongs to based on the bed index
-                String roomNumber = "R" + String.format("%03d", (bedIndex / 4) + 1);
-                Room room = roomRepository.findByRoomNumber(roomNumber).orElse(null);
-                if (room != null) {
-                    bed.setRoomId(room.getId());
-                }
-                bed.setBedNumber(bedNode.get("bed_number").asInt());
-                
-                // Set status to available for now (ID mapping too complex for initial load)
-                bed.setStatus("available");
-                
-                bedRepository.save(bed);
-                loaded++;
-                bedIndex++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading bed: {}", e.getMessage());
-                bedIndex++;
+    private void loadFoodMenu(JsonParser parser) throws IOException {
+        EntityBatch<FoodMenu> batch = new EntityBatch<>("food menu", foodMenuRepository::saveAll, null);
+        forEachElement(parser, "food menu", menuNode -> {
+            FoodMenu foodMenu = new FoodMenu();
+            foodMenu.setMealType(menuNode.get("meal_type").asText());
+            foodMenu.setDayOfWeek(menuNode.get("day_of_week").asText());
+            foodMenu.setItems(menuNode.get("items").asText());
+            if (menuNode.hasNonNull("created_at")) {
+                foodMenu.setCreatedAt(LocalDateTime.parse(menuNode.get("created_at").asText()));
+            }
+            batch.add(null, foodMenu);
+        });
+        batch.flush();
+        logger.info("   - Food Menu Items: {} loaded", batch.loaded);
+    }
+
+    private void loadRoomChangeRequests(JsonParser parser, Map<String, Long> userIds, Map<String, Long> roomIds) throws IOException {
+        EntityBatch<RoomChangeRequest> batch = new EntityBatch<>("room change requests", roomChangeRequestRepository::saveAll, null);
+        int[] unresolved = {0};
+        forEachElement(parser, "room change request", requestNode -> {
+            Long studentId = userIds.get(text(requestNode, "student_id"));
+            Long requestedRoomId = roomIds.get(text(requestNode, "requested_room_id"));
+            if (studentId == null || requestedRoomId == null) {
+                unresolved[0]++;
+                return;
+            }
+
+            RoomChangeRequest request = new RoomChangeRequest();
+            request.setStudentId(studentId);
+            request.setCurrentRoomId(roomIds.get(text(requestNode, "current_room_id")));
+            request.setRequestedRoomId(requestedRoomId);
+            request.setRequestedBedNumber(requestNode.get("requested_bed_number").asInt());
+            request.setReason(requestNode.get("reason").asText());
+            request.setStatus(requestNode.get("status").asText());
+
+            if (requestNode.hasNonNull("requested_at")) {
+                request.setRequestedAt(LocalDateTime.parse(requestNode.get("requested_at").asText()));
             }
+            if (requestNode.hasNonNull("processed_at")) {
+                request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
+            }
+            if (requestNode.hasNonNull("processed_by")) {
+                request.setProcessedBy(requestNode.get("processed_by").asText());
+            }
+            batch.add(null, request);
+        });
+        batch.flush();
+        logger.info("   - Room Change Requests: {} loaded", batch.loaded);
+        if (unresolved[0] > 0) {
+            logger.warn("   - Room Change Requests: {} skipped (student or room not found)", unresolved[0]);
         }
-        logger.info("   - Beds: {} loaded", loaded);
     }
 
-    private void loadFoodMenu(JsonNode foodMenuNode) {
-        if (foodMenuNode == null || !foodMenuNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode menuNode : foodMenuNode) {
-            try {
-                FoodMenu foodMenu = new FoodMenu();
-                // Don't set ID - let JPA auto-generate for MySQL
-                foodMenu.setMealType(menuNode.get("meal_type").asText());
-                foodMenu.setDayOfWeek(menuNode.get("day_of_week").asText());
-                foodMenu.setItems(menuNode.get("items").asText());
-                if (menuNode.has("created_at")) {
-                    foodMenu.setCreatedAt(LocalDateTime.parse(menuNode.get("created_at").asText()));
-                }
-                
-                foodMenuRepository.save(foodMenu);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading food menu: {}", e.getMessage());
+    private void loadPersonalDetailsUpdateRequests(JsonParser parser, Map<String, Long> userIds) throws IOException {
+        EntityBatch<PersonalDetailsUpdateRequest> batch = new EntityBatch<>("personal details requests",
+            personalDetailsUpdateRequestRepository::saveAll, null);
+        int[] unresolved = {0};
+        forEachElement(parser, "personal details request", requestNode -> {
+            Long studentId = userIds.get(text(requestNode, "student_id"));
+            if (studentId == null) {
+                unresolved[0]++;
+                return;
+            }
+
+            PersonalDetailsUpdateRequest request = new PersonalDetailsUpdateRequest();
+            request.setStudentId(studentId);
+            request.setStudentName(requestNode.get("student_name").asText());
+            request.setStudentRollNo(requestNode.get("student_roll_no").asText());
+
+            if (requestNode.has("phone")) request.setPhone(requestNode.get("phone").asText());
+            if (requestNode.has("address_line1")) request.setAddressLine1(requestNode.get("address_line1").asText());
+            if (requestNode.has("address_line2")) request.setAddressLine2(requestNode.get("address_line2").asText());
+            if (requestNode.has("city")) request.setCity(requestNode.get("city").asText());
+            if (requestNode.has("state")) request.setState(requestNode.get("state").asText());
+            if (requestNode.has("postal_code")) request.setPostalCode(requestNode.get("postal_code").asText());
+            if (requestNode.has("guardian_name")) request.setGuardianName(requestNode.get("guardian_name").asText());
+            if (requestNode.has("guardian_phone")) request.setGuardianPhone(requestNode.get("guardian_phone").asText());
+            if (requestNode.has("guardian_address")) request.setGuardianAddress(requestNode.get("guardian_address").asText());
+
+            request.setStatus(requestNode.get("status").asText());
+
+            if (requestNode.hasNonNull("warden_comments")) {
+                request.setWardenComments(requestNode.get("warden_comments").asText());
             }
+            if (requestNode.hasNonNull("processed_at")) {
+                request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
+            }
+            if (requestNode.hasNonNull("processed_by")) {
+                request.setProcessedBy(requestNode.get("processed_by").asText());
+            }
+            if (requestNode.hasNonNull("created_at")) {
+                request.setCreatedAt(LocalDateTime.parse(requestNode.get("created_at").asText()));
+            }
+            if (requestNode.hasNonNull("updated_at")) {
+                request.setUpdatedAt(LocalDateTime.parse(requestNode.get("updated_at").asText()));
+            }
+            batch.add(null, request);
+        });
+        batch.flush();
+        logger.info("   - Personal Details Requests: {} loaded", batch.loaded);
+        if (unresolved[0] > 0) {
+            logger.warn("   - Personal Details Requests: {} skipped (student not found)", unresolved[0]);
         }
-        logger.info("   - Food Menu Items: {} loaded", loaded);
     }
 
-    private void loadRoomChangeRequests(JsonNode requestsNode) {
-        if (requestsNode == null || !requestsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode requestNode : requestsNode) {
+    private static User toUser(JsonNode userNode) {
+        User user = new User();
+        user.setUsername(userNode.get("username").asText());
+        user.setPassword(userNode.get("password").asText());
+        user.setRole(userNode.get("role").asText());
+        user.setFullName(userNode.get("full_name").asText());
+        user.setEmail(userNode.get("email").asText());
+        user.setPhone(userNode.get("phone").asText());
+
+        if (userNode.hasNonNull("date_of_birth")) {
+            user.setDateOfBirth(LocalDate.parse(userNode.get("date_of_birth").asText()));
+        }
+        if (userNode.has("gender")) user.setGender(userNode.get("gender").asText());
+        if (userNode.has("aadhaar_id")) user.setAadhaarId(userNode.get("aadhaar_id").asText());
+        if (userNode.has("roll_no")) user.setRollNo(userNode.get("roll_no").asText());
+        if (userNode.has("stream")) user.setStream(userNode.get("stream").asText());
+        if (userNode.has("branch")) user.setBranch(userNode.get("branch").asText());
+        if (userNode.has("address_line1")) user.setAddressLine1(userNode.get("address_line1").asText());
+        if (userNode.has("address_line2")) user.setAddressLine2(userNode.get("address_line2").asText());
+        if (userNode.has("city")) user.setCity(userNode.get("city").asText());
+        if (userNode.has("state")) user.setState(userNode.get("state").asText());
+        if (userNode.has("postal_code")) user.setPostalCode(userNode.get("postal_code").asText());
+        if (userNode.has("guardian_name")) user.setGuardianName(userNode.get("guardian_name").asText());
+        if (userNode.has("guardian_phone")) user.setGuardianPhone(userNode.get("guardian_phone").asText());
+        if (userNode.has("guardian_address")) user.setGuardianAddress(userNode.get("guardian_address").asText());
+        if (userNode.has("first_login")) user.setFirstLogin(userNode.get("first_login").asBoolean());
+        if (userNode.hasNonNull("created_at")) {
+            user.setCreatedAt(LocalDateTime.parse(userNode.get("created_at").asText()));
+        }
+        return user;
+    }
+
+    // Materialises one array element at a time; a malformed element is logged and skipped
+    private void forEachElement(JsonParser parser, String label, Consumer<JsonNode> handler) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode node = objectMapper.readTree(parser);
             try {
-                RoomChangeRequest request = new RoomChangeRequest();
-                // Don't set ID - let JPA auto-generate for MySQL
-                // For now, skip setting student and room IDs as we need proper ID mapping
-                // request.setStudentId(requestNode.get("student_id").asText());
-                // request.setCurrentRoomId(requestNode.get("current_room_id").asText());
-                // request.setRequestedRoomId(requestNode.get("requested_room_id").asText());
-                request.setRequestedBedNumber(requestNode.get("requested_bed_number").asInt());
-                request.setReason(requestNode.get("reason").asText());
-                request.setStatus(requestNode.get("status").asText());
-                
-                if (requestNode.has("requested_at")) {
-                    request.setRequestedAt(LocalDateTime.parse(requestNode.get("requested_at").asText()));
-                }
-                if (requestNode.has("processed_at") && !requestNode.get("processed_at").isNull()) {
-                    request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
-                }
-                if (requestNode.has("processed_by") && !requestNode.get("processed_by").isNull()) {
-                    request.setProcessedBy(requestNode.get("processed_by").asText());
-                }
-                
-                roomChangeRequestRepository.save(request);
-                loaded++;
-                
+                handler.accept(node);
             } catch (Exception e) {
-                System.err.println("Error loading room change request: " + e.getMessage());
+                logger.warn("Error loading {}: {}", label, e.getMessage());
             }
         }
-        System.out.println("   - Room Change Requests: " + loaded + " loaded");
     }
 
-    private void loadPersonalDetailsUpdateRequests(JsonNode requestsNode) {
-        if (requestsNode == null || !requestsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode requestNode : requestsNode) {
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Buffers parsed entities and writes them with one saveAll per batch, reporting each saved
+     * entity with its legacy id so callers can record the id mapping. A batch that fails is rolled
+     * back as a whole and written again one entity at a time, so only the bad rows are skipped.
+     */
+    private final class EntityBatch<T> {
+        private final String label;
+        private final Function<List<T>, List<T>> writer;
+        private final BiConsumer<String, T> onSaved;
+        private final List<T> entities = new ArrayList<>();
+        private final List<String> legacyIds = new ArrayList<>();
+        private int loaded;
+
+        EntityBatch(String label, Function<List<T>, List<T>> writer, BiConsumer<String, T> onSaved) {
+            this.label = label;
+            this.writer = writer;
+            this.onSaved = onSaved;
+        }
+
+        void add(String legacyId, T entity) {
+            entities.add(entity);
+            legacyIds.add(legacyId);
+            if (entities.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (entities.isEmpty()) {
+                return;
+            }
             try {
-                PersonalDetailsUpdateRequest request = new PersonalDetailsUpdateRequest();
-                // Don't set ID - let JPA auto-generate for MySQL
-                // For now, skip setting student ID as we need proper ID mapping
-                // request.setStudentId(requestNode.get("student_id").asText());
-                request.setStudentName(requestNode.get("student_name").asText());
-                request.setStudentRollNo(requestNode.get("student_roll_no").asText());
-                
-                if (requestNode.has("phone")) request.setPhone(requestNode.get("phone").asText());
-                if (requestNode.has("address_line1")) request.setAddressLine1(requestNode.get("address_line1").asText());
-                if (requestNode.has("address_line2")) request.setAddressLine2(requestNode.get("address_line2").asText());
-                if (requestNode.has("city")) request.setCity(requestNode.get("city").asText());
-                if (requestNode.has("state")) request.setState(requestNode.get("state").asText());
-                if (requestNode.has("postal_code")) request.setPostalCode(requestNode.get("postal_code").asText());
-                if (requestNode.has("guardian_name")) request.setGuardianName(requestNode.get("guardian_name").asText());
-                if (requestNode.has("guardian_phone")) request.setGuardianPhone(requestNode.get("guardian_phone").asText());
-                if (requestNode.has("guardian_address")) request.setGuardianAddress(requestNode.get("guardian_address").asText());
-                
-                request.setStatus(requestNode.get("status").asText());
-                
-                if (requestNode.has("warden_comments") && !requestNode.get("warden_comments").isNull()) {
-                    request.setWardenComments(requestNode.get("warden_comments").asText());
-                }
-                if (requestNode.has("processed_at") && !requestNode.get("processed_at").isNull()) {
-                    request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
-                }
-                if (requestNode.has("processed_by") && !requestNode.get("processed_by").isNull()) {
-                    request.setProcessedBy(requestNode.get("processed_by").asText());
+                saved(legacyIds, writer.apply(entities));
+            } catch (RuntimeException e) {
+                logger.warn("Error saving batch of {} {}, retrying one at a time: {}", entities.size(), label, e.getMessage());
+                for (int i = 0; i < entities.size(); i++) {
+                    T entity = entities.get(i);
+                    clearGeneratedState(entity);
+                    try {
+                        saved(legacyIds.subList(i, i + 1), writer.apply(List.of(entity)));
+                    } catch (RuntimeException rowError) {
+                        logger.warn("Error saving {} {}: {}", label, legacyIds.get(i) != null ? legacyIds.get(i) : "#" + i,
+                            rowError.getMessage());
+                    }
                 }
-                if (requestNode.has("created_at")) {
-                    request.setCreatedAt(LocalDateTime.parse(requestNode.get("created_at").asText()));
+            }
+            entities.clear();
+            legacyIds.clear();
+        }
+
+        private void saved(List<String> ids, List<T> saved) {
+            if (onSaved != null) {
+                for (int i = 0; i < saved.size(); i++) {
+                    if (ids.get(i) != null) {
+                        onSaved.accept(ids.get(i), saved.get(i));
+                    }
                 }
-                if (requestNode.has("updated_at") && !requestNode.get("updated_at").isNull()) {
-                    request.setUpdatedAt(LocalDateTime.parse(requestNode.get("updated_at").asText()));
+            }
+            loaded += saved.size();
+        }
+
+        // The rolled back attempt left the generated id and seeded version on the entity, which
+        // would make the retry merge a row that does not exist instead of inserting it
+        private void clearGeneratedState(T entity) {
+            for (SingularAttribute<?, ?> attribute : entityManager.getMetamodel().entity(entity.getClass()).getSingularAttributes()) {
+                if ((attribute.isId() || attribute.isVersion()) && !attribute.getJavaType().isPrimitive()
+                        && attribute.getJavaMember() instanceof Field field) {
+                    ReflectionUtils.makeAccessible(field);
+                    ReflectionUtils.setField(field, entity, null);
                 }
-                
-                personalDetailsUpdateRequestRepository.save(request);
-                loaded++;
-                
-            } catch (Exception e) {
-                System.err.println("Error loading personal details request: " + e.getMessage());
             }
         }
-        System.out.println("   - Personal Details Requests: " + loaded + " loaded");
     }
 
     private void displayStatistics() {
@@ -307,22 +441,26 @@ public class JsonDataLoaderService {
         long studentCount = userRepository.countByRole("student");
         long roomCount = roomRepository.count();
         long bedCount = bedRepository.count();
+        long occupiedBeds = bedRepository.countByStatus("occupied");
         long availableBeds = bedRepository.countByStatus("available");
         long foodMenuCount = foodMenuRepository.count();
+        long roomChangeRequestCount = roomChangeRequestRepository.count();
+        long personalDetailsRequestCount = personalDetailsUpdateRequestRepository.count();
 
-        logger.info("✅ Database loaded successfully from JSON (MySQL version - core data only)!");
+        logger.info("✅ Database loaded successfully from JSON!");
         logger.info("📊 Database statistics:");
         logger.info("   - Users: {} ({} wardens, {} students)", userCount, wardenCount, studentCount);
         logger.info("   - Rooms: {}", roomCount);
-        logger.info("   - Beds: {} ({} available)", bedCount, availableBeds);
+        logger.info("   - Beds: {} ({} occupied, {} available)", bedCount, occupiedBeds, availableBeds);
         logger.info("   - Food Menu Items: {}", foodMenuCount);
-        logger.info("   ℹ️  Note: Request data not loaded due to auto-generated ID complexity");
+        logger.info("   - Room Change Requests: {}", roomChangeRequestCount);
+        logger.info("   - Personal Details Requests: {}", personalDetailsRequestCount);
 
         // Find and display default login credentials
         userRepository.findByRole("warden").stream().findFirst().ifPresent(warden -> {
             logger.info("🔐 Default Login Credentials:");
             logger.info("   Warden - Username: {}, Password: warden123", warden.getUsername());
-            
+
             List<User> students = userRepository.findByRole("student");
             students.stream().limit(3).forEach(student -> {
                 logger.info("   Student - Username: {}, Password: password123", student.getUsername());
@@ -332,4 +470,4 @@ public class JsonDataLoaderService {
             }
         });
     }
-} 
\ No newline at end of file
+}
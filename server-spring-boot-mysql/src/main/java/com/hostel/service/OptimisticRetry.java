@@ -0,0 +1,78 @@
+package com.hostel.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs an operation that lost an optimistic-lock race. Every attempt re-reads its entities, so a
+ * retry either applies cleanly to the fresh state or fails the service's own checks (for example
+ * "Request has already been processed"). Calls, conflicts and exhausted retries are counted per
+ * operation as hostel.optimistic.calls, hostel.optimistic.conflicts and hostel.optimistic.exhausted.
+ */
+@Component
+public class OptimisticRetry {
+
+    private static final Logger logger = LoggerFactory.getLogger(OptimisticRetry.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    public OptimisticRetry(MeterRegistry meterRegistry,
+                           @Value("${app.optimistic-retry.max-attempts:3}") int maxAttempts,
+                           @Value("${app.optimistic-retry.initial-backoff-ms:20}") long initialBackoffMillis,
+                           @Value("${app.optimistic-retry.max-backoff-ms:200}") long maxBackoffMillis) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+
+    public void run(String operation, Runnable action) {
+        execute(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        meterRegistry.counter("hostel.optimistic.calls", "operation", operation).increment();
+        long backoff = initialBackoffMillis;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (OptimisticLockingFailureException e) {
+                meterRegistry.counter("hostel.optimistic.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("hostel.optimistic.exhausted", "operation", operation).increment();
+                    logger.warn("Optimistic lock conflict on {} persisted after {} attempts", operation, attempt);
+                    throw new RuntimeException("The record was changed by another user, please try again");
+                }
+                logger.debug("Optimistic lock conflict on {} (attempt {}), retrying", operation, attempt);
+                pause(backoff);
+                backoff = Math.min(backoff * 2, maxBackoffMillis);
+            }
+        }
+    }
+
+    // Jitter keeps writers that collided once from colliding again in lockstep
+    private static void pause(long backoffMillis) {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(backoffMillis / 2, backoffMillis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while retrying after a concurrent update");
+        }
+    }
+}
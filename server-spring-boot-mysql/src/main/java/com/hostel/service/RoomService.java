@@ -1,23 +1,37 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.ResourceVersions;
+import com.hostel.dto.BedStatusCount;
+import com.hostel.dto.ProvisionRoomsRequest;
+import com.hostel.dto.UserNameView;
 import com.hostel.model.Room;
 import com.hostel.model.Bed;
-import com.hostel.model.User;
 import com.hostel.repository.RoomRepository;
 import com.hostel.repository.BedRepository;
 import com.hostel.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class RoomService {
     
+    private static final Logger logger = LoggerFactory.getLogger(RoomService.class);
+    
     @Autowired
     private RoomRepository roomRepository;
     
@@ -27,12 +41,49 @@ public class RoomService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private OptimisticRetry optimisticRetry;
+    
+    @Autowired
+    private BedAvailabilityIndex bedAvailabilityIndex;
+    
+    @Autowired
+    private HostelCache hostelCache;
+    
+    @Autowired
+    private ResourceVersions resourceVersions;
+    
+    private static final TypeReference<List<Map<String, Object>>> ROOM_LIST = new TypeReference<>() {};
+    
+    private static final TypeReference<Map<String, Object>> ROOM_DETAILS = new TypeReference<>() {};
+    
+    @Value("${app.provision.max-rooms:2000}")
+    private int maxProvisionRooms;
+    
+    // Versions are bumped by BedAvailabilityIndex after every committed bed change
+    public String getRoomListEtag() {
+        return resourceVersions.etag(ResourceVersions.ROOMS);
+    }
+    
+    public String getRoomEtag(Long roomId) {
+        return resourceVersions.etag(ResourceVersions.room(roomId), ResourceVersions.STUDENTS);
+    }
+    
+    // Cached until a bed in any room changes; BedAvailabilityIndex evicts on every committed bed change
     public List<Map<String, Object>> getAllRoomsWithStats() {
+        return hostelCache.get(HostelCache.ROOMS, "all", ROOM_LIST, this::loadAllRoomsWithStats);
+    }
+    
+    private List<Map<String, Object>> loadAllRoomsWithStats() {
         List<Room> rooms = roomRepository.findAll();
+        // Counted in the database rather than read from this replica's availability index: the list
+        // may be cached in the tier shared by every replica
+        Map<Long, Map<String, Long>> bedCounts = getBedCountsByRoom();
         
         return rooms.stream().map(room -> {
-            long occupiedBeds = bedRepository.countByRoomIdAndStatus(room.getId(), "occupied");
-            long availableBeds = bedRepository.countByRoomIdAndStatus(room.getId(), "available");
+            Map<String, Long> counts = bedCounts.getOrDefault(room.getId(), Map.of());
+            long occupiedBeds = counts.getOrDefault("occupied", 0L);
+            long availableBeds = counts.getOrDefault("available", 0L);
             
             Map<String, Object> roomMap = new HashMap<>();
             roomMap.put("id", room.getId());
@@ -47,52 +98,45 @@ public class RoomService {
         }).collect(Collectors.toList());
     }
     
-    public Map<String, Object> getRoomDetails(Long roomId) {
-        System.out.println("=== getRoomDetails called for roomId: " + roomId + " ===");
-        
-        Optional<Room> roomOptional = roomRepository.findById(roomId);
-        
-        if (roomOptional.isEmpty()) {
-            System.out.println("ERROR: Room not found for ID: " + roomId);
-            throw new RuntimeException("Room not found");
+    // Bed counts per room and status, loaded with a single grouped query regardless of room count
+    private Map<Long, Map<String, Long>> getBedCountsByRoom() {
+        Map<Long, Map<String, Long>> bedCounts = new HashMap<>();
+        for (BedStatusCount count : bedRepository.countGroupedByRoomIdAndStatus()) {
+            bedCounts.computeIfAbsent(count.getRoomId(), roomId -> new HashMap<>())
+                .put(count.getStatus(), count.getTotal());
         }
-        
-        Room room = roomOptional.get();
-        System.out.println("Found room: " + room.getRoomNumber() + " (ID: " + roomId + ")");
-        System.out.println("Room capacity: " + room.getCapacity());
+        return bedCounts;
+    }
+    
+    public Map<String, Object> getRoomDetails(Long roomId) {
+        return hostelCache.get(HostelCache.ROOM_DETAILS, String.valueOf(roomId), ROOM_DETAILS, () -> loadRoomDetails(roomId));
+    }
+    
+    private Map<String, Object> loadRoomDetails(Long roomId) {
+        Room room = roomRepository.findById(roomId)
+            .orElseThrow(() -> new RuntimeException("Room not found"));
         
         List<Bed> beds = bedRepository.findByRoomId(roomId);
-        System.out.println("Found " + beds.size() + " beds for room " + room.getRoomNumber());
-        
         if (beds.isEmpty()) {
-            System.out.println("WARNING: No beds found for room " + room.getRoomNumber());
-            System.out.println("This indicates a data initialization problem");
+            logger.warn("No beds found for room {} - this indicates a data initialization problem", room.getRoomNumber());
         }
         
+        // Resolve all occupants in one batch instead of one lookup per bed
+        Map<Long, String> occupantNames = getFullNames(beds.stream()
+            .map(Bed::getStudentId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet()));
+        
         List<Map<String, Object>> bedsWithStudents = beds.stream().map(bed -> {
-            User student = bed.getStudentId() != null ? 
-                userRepository.findById(bed.getStudentId()).orElse(null) : null;
-            
-            System.out.println("Processing bed " + bed.getBedNumber() + " - Status: '" + bed.getStatus() + "' - Student ID: " + bed.getStudentId());
-            
             Map<String, Object> bedMap = new HashMap<>();
             bedMap.put("id", bed.getId());
             bedMap.put("bed_number", bed.getBedNumber());
             bedMap.put("status", bed.getStatus());
             bedMap.put("student_id", bed.getStudentId() != null ? bed.getStudentId() : "");
-            bedMap.put("student_name", student != null ? student.getFullName() : null);
+            bedMap.put("student_name", bed.getStudentId() != null ? occupantNames.get(bed.getStudentId()) : null);
             return bedMap;
         }).collect(Collectors.toList());
         
-        // Count available beds
-        long availableBedsCount = bedsWithStudents.stream()
-            .mapToLong(bed -> "available".equals(bed.get("status")) ? 1 : 0)
-            .sum();
-        
-        System.out.println("Total beds in response: " + bedsWithStudents.size());
-        System.out.println("Available beds count: " + availableBedsCount);
-        System.out.println("=== End getRoomDetails ===");
-        
         Map<String, Object> roomDetails = new HashMap<>();
         roomDetails.put("id", room.getId());
         roomDetails.put("room_number", room.getRoomNumber());
@@ -105,59 +149,120 @@ public class RoomService {
         return roomDetails;
     }
     
+    private Map<Long, String> getFullNames(Set<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, String> fullNames = new HashMap<>();
+        for (UserNameView user : userRepository.findByIdIn(userIds)) {
+            fullNames.put(user.getId(), user.getFullName());
+        }
+        return fullNames;
+    }
+    
+    @Transactional
     public Room createRoom(String roomNumber, Integer floor, Integer capacity, String roomType) {
         Room room = new Room(roomNumber, floor, capacity, roomType);
         Room savedRoom = roomRepository.save(room);
         
-        // Create beds for the room
-        for (int i = 1; i <= capacity; i++) {
-            Bed bed = new Bed(savedRoom.getId(), i);
-            bedRepository.save(bed);
-        }
+        // Create beds for the room in one batched write
+        List<Bed> beds = bedRepository.saveAll(bedsFor(List.of(savedRoom)));
+        bedAvailabilityIndex.roomsAdded(List.of(savedRoom), beds);
         
         return savedRoom;
     }
     
+    /**
+     * Creates every room and bed of the requested floors in one transaction. Table-generated ids
+     * let Hibernate send both inserts as JDBC batches instead of one round trip per row.
+     */
+    @Transactional
+    public Map<String, Object> provisionRooms(ProvisionRoomsRequest request) {
+        long start = System.nanoTime();
+        List<Room> rooms = roomRepository.saveAll(planRooms(request));
+        List<Bed> beds = bedRepository.saveAll(bedsFor(rooms));
+        bedAvailabilityIndex.roomsAdded(rooms, beds);
+        return provisioningReport(rooms.size(), beds.size(), start);
+    }
+    
+    // Expands the floor range and templates into unsaved rooms, numbered prefix + floor + sequence
+    private List<Room> planRooms(ProvisionRoomsRequest request) {
+        if (request.getFloorTo() < request.getFloorFrom()) {
+            throw new RuntimeException("floor_to must not be below floor_from");
+        }
+        int roomsPerFloor = request.getTemplates().stream().mapToInt(ProvisionRoomsRequest.RoomTemplate::getRoomsPerFloor).sum();
+        int totalRooms = (request.getFloorTo() - request.getFloorFrom() + 1) * roomsPerFloor;
+        if (totalRooms > maxProvisionRooms) {
+            throw new RuntimeException("Provisioning is limited to " + maxProvisionRooms + " rooms per request");
+        }
+        
+        String sequenceFormat = "%0" + Math.max(2, String.valueOf(roomsPerFloor).length()) + "d";
+        List<Room> rooms = new ArrayList<>(totalRooms);
+        for (int floor = request.getFloorFrom(); floor <= request.getFloorTo(); floor++) {
+            int sequence = 1;
+            for (ProvisionRoomsRequest.RoomTemplate template : request.getTemplates()) {
+                for (int i = 0; i < template.getRoomsPerFloor(); i++) {
+                    String roomNumber = request.getPrefix() + floor + String.format(sequenceFormat, sequence++);
+                    rooms.add(new Room(roomNumber, floor, template.getCapacity(), template.getRoomType()));
+                }
+            }
+        }
+        
+        List<String> roomNumbers = rooms.stream().map(Room::getRoomNumber).collect(Collectors.toList());
+        List<String> taken = roomRepository.findByRoomNumberIn(roomNumbers).stream()
+            .map(Room::getRoomNumber)
+            .sorted()
+            .limit(10)
+            .collect(Collectors.toList());
+        if (!taken.isEmpty()) {
+            throw new RuntimeException("Room numbers already exist: " + String.join(", ", taken));
+        }
+        return rooms;
+    }
+    
+    private static List<Bed> bedsFor(List<Room> rooms) {
+        List<Bed> beds = new ArrayList<>();
+        for (Room room : rooms) {
+            for (int i = 1; i <= room.getCapacity(); i++) {
+                beds.add(new Bed(room.getId(), i));
+            }
+        }
+        return beds;
+    }
+    
+    private static Map<String, Object> provisioningReport(int roomCount, int bedCount, long startNanos) {
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        Map<String, Object> report = new HashMap<>();
+        report.put("rooms_created", roomCount);
+        report.put("beds_created", bedCount);
+        report.put("elapsed_ms", elapsedMillis);
+        report.put("rooms_per_second", roomCount * 1000L / elapsedMillis);
+        report.put("beds_per_second", bedCount * 1000L / elapsedMillis);
+        logger.info("Provisioned {} rooms and {} beds in {} ms", roomCount, bedCount, elapsedMillis);
+        return report;
+    }
+    
     public void updateRoomOccupancy(Long roomId) {
-        Room room = roomRepository.findById(roomId).orElse(null);
-        if (room != null) {
-            long occupiedCount = bedRepository.countByRoomIdAndStatus(roomId, "occupied");
-            room.setOccupiedBeds((int) occupiedCount);
+        optimisticRetry.run("room.occupancy", () -> roomRepository.findById(roomId).ifPresent(room -> {
+            room.setOccupiedBeds((int) bedRepository.countByRoomIdAndStatus(roomId, "occupied"));
             roomRepository.save(room);
-        }
+        }));
     }
     
-    public List<Room> getAvailableRooms() {
-        List<Room> allRooms = roomRepository.findAll();
-        return allRooms.stream()
-            .filter(room -> {
-                long availableBeds = bedRepository.countByRoomIdAndStatus(room.getId(), "available");
-                return availableBeds > 0;
-            })
-            .collect(Collectors.toList());
+    // Rooms with at least one free bed, optionally narrowed to a floor and room type; the index picks
+    // the rooms and a single id lookup loads them
+    public List<Room> getAvailableRooms(Integer floor, String roomType) {
+        List<Long> roomIds = bedAvailabilityIndex.roomsWithFreeBeds(floor, roomType);
+        Map<Long, Room> roomsById = new HashMap<>();
+        for (Room room : roomRepository.findAllById(roomIds)) {
+            roomsById.put(room.getId(), room);
+        }
+        return roomIds.stream().map(roomsById::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
     
     public Map<String, Object> getRoomStatistics() {
-        List<Room> rooms = roomRepository.findAll();
-        
-        int totalRooms = rooms.size();
-        long occupiedRooms = rooms.stream()
-            .filter(room -> room.getOccupiedBeds() != null && room.getOccupiedBeds() > 0)
-            .count();
-        int totalBeds = rooms.stream()
-            .mapToInt(room -> room.getCapacity() != null ? room.getCapacity() : 0)
-            .sum();
-        int occupiedBeds = rooms.stream()
-            .mapToInt(room -> room.getOccupiedBeds() != null ? room.getOccupiedBeds() : 0)
-            .sum();
-        
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("totalRooms", totalRooms);
-        stats.put("occupiedRooms", occupiedRooms);
-        stats.put("totalBeds", totalBeds);
-        stats.put("occupiedBeds", occupiedBeds);
-        stats.put("availableBeds", totalBeds - occupiedBeds);
-        
+        Map<String, Object> stats = new HashMap<>(bedAvailabilityIndex.statistics());
+        stats.put("availableBedsByRoomType", bedAvailabilityIndex.freeBedsByRoomType());
         return stats;
     }
 
@@ -0,0 +1,67 @@
+package com.hostel.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports hit, miss and put counts for the Hibernate second-level cache, overall and per region as
+ * declared in ehcache.xml, plus the query cache. Counts run from startup.
+ */
+@Service
+public class SecondLevelCacheStatisticsService {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    public Map<String, Object> getStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("statistics_enabled", statistics.isStatisticsEnabled());
+        response.put("second_level_cache", counts(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+            statistics.getSecondLevelCachePutCount()));
+        response.put("query_cache", counts(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+            statistics.getQueryCachePutCount()));
+
+        List<Map<String, Object>> regions = new ArrayList<>();
+        String[] regionNames = statistics.getSecondLevelCacheRegionNames();
+        Arrays.sort(regionNames);
+        for (String regionName : regionNames) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("region", regionName);
+            entry.putAll(counts(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            // JCache regions cannot report their size
+            if (region.getElementCountInMemory() != CacheRegionStatistics.NO_EXTENDED_STAT_SUPPORT_RETURN) {
+                entry.put("entries", region.getElementCountInMemory());
+            }
+            regions.add(entry);
+        }
+        response.put("regions", regions);
+        return response;
+    }
+
+    private static Map<String, Object> counts(long hits, long misses, long puts) {
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        counts.put("hit_ratio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return counts;
+    }
+}
@@ -0,0 +1,89 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.repository.UserRepository;
+import com.hostel.util.CsvUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Writes the student roster straight from a database cursor to the response stream, one row
+ * at a time, so memory use stays flat however large the roster is.
+ */
+@Service
+public class StudentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentExportService.class);
+    
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+    
+    private static final List<String> CSV_COLUMNS = List.of(
+        "id", "full_name", "username", "email", "phone", "date_of_birth", "gender", "aadhaar_id", "roll_no",
+        "stream", "branch", "created_at", "first_login", "room_id", "room_number", "bed_number");
+    
+    private final UserRepository userRepository;
+    
+    private final ObjectMapper objectMapper;
+
+    public StudentExportService(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    public static boolean isSupportedFormat(String format) {
+        return FORMAT_CSV.equals(format) || FORMAT_NDJSON.equals(format);
+    }
+
+    public void exportRoster(String format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        boolean csv = FORMAT_CSV.equals(format);
+        if (csv) {
+            writeCsvLine(writer, CSV_COLUMNS);
+        }
+        
+        long[] rows = {0};
+        try {
+            userRepository.streamStudentRoster(entry -> {
+                Map<String, Object> row = StudentService.toRosterMap(entry);
+                try {
+                    if (csv) {
+                        writeCsvLine(writer, CSV_COLUMNS.stream().map(row::get).toList());
+                    } else {
+                        writer.write(objectMapper.writeValueAsString(row));
+                        writer.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        logger.info("Exported {} students as {}", rows[0], format);
+    }
+
+    private static void writeCsvLine(Writer writer, List<?> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(CsvUtils.escape(Objects.toString(values.get(i), "")));
+        }
+        writer.write("\r\n");
+    }
+}
@@ -0,0 +1,267 @@
+package com.hostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hostel.dto.CreateStudentRequest;
+import com.hostel.model.User;
+import com.hostel.repository.UserRepository;
+import com.hostel.util.CsvUtils;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk onboarding of students. Uniqueness is checked for the whole file in one query, passwords
+ * are hashed in parallel on a bounded pool and users are inserted in JDBC batches.
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final ThreadPoolExecutor hashExecutor;
+
+    private final int maxRows;
+
+    private final int batchSize;
+
+    public StudentImportService(UserRepository userRepository, PasswordEncoder passwordEncoder, Validator validator, ObjectMapper objectMapper,
+                                @Value("${app.import.hash-threads:0}") int hashThreads,
+                                @Value("${app.import.max-rows:5000}") int maxRows,
+                                @Value("${app.import.batch-size:500}") int batchSize) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+        this.batchSize = batchSize;
+
+        // BCrypt is CPU bound: one thread per core, and when the queue is full the caller hashes
+        // the password itself rather than piling up unbounded work
+        int threads = hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.hashExecutor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(threads * 64),
+            runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+    public Map<String, Object> importCsv(String csv) {
+        List<List<String>> records = CsvUtils.parse(csv);
+        if (records.isEmpty()) {
+            throw new RuntimeException("CSV must contain a header row");
+        }
+
+        // Header names are the JSON property names of CreateStudentRequest (full_name, roll_no, ...)
+        List<String> header = records.get(0).stream().map(String::trim).collect(Collectors.toList());
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 1; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            Map<String, String> values = new HashMap<>();
+            for (int column = 0; column < header.size() && column < record.size(); column++) {
+                String value = record.get(column).trim();
+                values.put(header.get(column), value.isEmpty() ? null : value);
+            }
+
+            ImportRow row = new ImportRow(i);
+            try {
+                row.request = objectMapper.convertValue(values, CreateStudentRequest.class);
+            } catch (IllegalArgumentException e) {
+                row.errors.add("Unreadable row: " + e.getMessage());
+            }
+            rows.add(row);
+        }
+        return importRows(rows);
+    }
+
+    public Map<String, Object> importStudents(List<CreateStudentRequest> requests) {
+        List<ImportRow> rows = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ImportRow row = new ImportRow(i + 1);
+            row.request = requests.get(i);
+            if (row.request == null) {
+                row.errors.add("Empty row");
+            }
+            rows.add(row);
+        }
+        return importRows(rows);
+    }
+
+    private Map<String, Object> importRows(List<ImportRow> rows) {
+        if (rows.size() > maxRows) {
+            throw new RuntimeException("Import is limited to " + maxRows + " students per request");
+        }
+        long start = System.currentTimeMillis();
+
+        validateRows(rows);
+        List<ImportRow> accepted = rows.stream().filter(row -> row.errors.isEmpty()).collect(Collectors.toList());
+
+        // Hash all passwords concurrently before touching the database
+        List<CompletableFuture<String>> hashes = new ArrayList<>(accepted.size());
+        for (ImportRow row : accepted) {
+            row.password = StudentService.generateRandomPassword();
+            hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(row.password), hashExecutor));
+        }
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).student = StudentService.buildStudent(accepted.get(i).request, hashes.get(i).join());
+        }
+
+        for (int from = 0; from < accepted.size(); from += batchSize) {
+            List<ImportRow> chunk = accepted.subList(from, Math.min(from + batchSize, accepted.size()));
+            try {
+                List<User> saved = userRepository.saveAll(chunk.stream().map(row -> row.student).collect(Collectors.toList()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    chunk.get(i).student = saved.get(i);
+                }
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent insert won a unique key; the whole batch was rolled back
+                logger.warn("Bulk import batch of {} rows rejected: {}", chunk.size(), e.getMostSpecificCause().getMessage());
+                chunk.forEach(row -> {
+                    row.student = null;
+                    row.errors.add("Conflicts with an existing student, please retry this row");
+                });
+            }
+        }
+
+        List<Map<String, Object>> credentials = new ArrayList<>();
+        List<Map<String, Object>> errors = new ArrayList<>();
+        for (ImportRow row : rows) {
+            if (row.errors.isEmpty()) {
+                Map<String, Object> credential = new LinkedHashMap<>();
+                credential.put("row", row.rowNumber);
+                credential.put("student_id", row.student.getId());
+                credential.put("roll_no", row.student.getRollNo());
+                credential.put("username", row.student.getUsername());
+                credential.put("password", row.password);
+                credentials.add(credential);
+            } else {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", row.rowNumber);
+                error.put("roll_no", row.request != null ? row.request.getRollNo() : null);
+                error.put("errors", row.errors);
+                errors.add(error);
+            }
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Bulk import: {} rows, {} created, {} failed in {} ms", rows.size(), credentials.size(), errors.size(), elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("total_rows", rows.size());
+        response.put("created", credentials.size());
+        response.put("failed", errors.size());
+        response.put("elapsed_ms", elapsed);
+        response.put("credentials", credentials);
+        response.put("errors", errors);
+        return response;
+    }
+
+    private void validateRows(List<ImportRow> rows) {
+        Map<String, Integer> rollNos = new HashMap<>();
+        Map<String, Integer> aadhaarIds = new HashMap<>();
+        Map<String, Integer> phones = new HashMap<>();
+
+        for (ImportRow row : rows) {
+            if (row.request == null) {
+                continue;
+            }
+            for (ConstraintViolation<CreateStudentRequest> violation : validator.validate(row.request)) {
+                row.errors.add(violation.getMessage());
+            }
+            checkDuplicateInFile(row, rollNos, row.request.getRollNo(), "Roll number");
+            checkDuplicateInFile(row, aadhaarIds, row.request.getAadhaarId(), "Aadhaar ID");
+            checkDuplicateInFile(row, phones, row.request.getPhone(), "Phone number");
+        }
+
+        // One query for every value in the file instead of four lookups per student
+        List<User> clashes = userRepository.findByUsernameInOrAadhaarIdInOrRollNoInOrPhoneIn(
+            rollNos.keySet(), aadhaarIds.keySet(), rollNos.keySet(), phones.keySet());
+        if (clashes.isEmpty()) {
+            return;
+        }
+        Set<String> existingRollNos = new HashSet<>();
+        Set<String> existingAadhaarIds = new HashSet<>();
+        Set<String> existingPhones = new HashSet<>();
+        for (User user : clashes) {
+            existingRollNos.add(user.getUsername());
+            existingRollNos.add(user.getRollNo());
+            existingAadhaarIds.add(user.getAadhaarId());
+            existingPhones.add(user.getPhone());
+        }
+        existingRollNos.remove(null);
+        existingAadhaarIds.remove(null);
+        existingPhones.remove(null);
+        for (ImportRow row : rows) {
+            if (row.request == null) {
+                continue;
+            }
+            if (existingRollNos.contains(row.request.getRollNo())) {
+                row.errors.add("Roll number already exists");
+            }
+            if (existingAadhaarIds.contains(row.request.getAadhaarId())) {
+                row.errors.add("Aadhaar ID already exists");
+            }
+            if (existingPhones.contains(row.request.getPhone())) {
+                row.errors.add("Phone number already exists");
+            }
+        }
+    }
+
+    private static void checkDuplicateInFile(ImportRow row, Map<String, Integer> seen, String value, String label) {
+        if (value == null) {
+            return;
+        }
+        Integer firstRow = seen.putIfAbsent(value, row.rowNumber);
+        if (firstRow != null) {
+            row.errors.add(label + " duplicates row " + firstRow);
+        }
+    }
+
+    private static class ImportRow {
+        private final int rowNumber;
+        private final List<String> errors = new ArrayList<>();
+        private CreateStudentRequest request;
+        private String password;
+        private User student;
+
+        ImportRow(int rowNumber) {
+            this.rowNumber = rowNumber;
+        }
+    }
+}
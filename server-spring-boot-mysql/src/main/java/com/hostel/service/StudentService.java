@@ -1,7 +1,13 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.ResourceVersions;
 import com.hostel.dto.CreateStudentRequest;
+import com.hostel.dto.CursorPage;
 import com.hostel.dto.RoomChangeRequestDto;
+import com.hostel.dto.StudentRosterEntry;
+import com.hostel.dto.UserNameView;
 import com.hostel.model.User;
 import com.hostel.model.Bed;
 import com.hostel.model.Room;
@@ -12,15 +18,23 @@ import com.hostel.repository.BedRepository;
 import com.hostel.repository.RoomRepository;
 import com.hostel.repository.RoomChangeRequestRepository;
 import com.hostel.repository.PersonalDetailsUpdateRequestRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -38,16 +52,36 @@ public class StudentService {
     
     private final PasswordEncoder passwordEncoder;
     
+    private final OptimisticRetry optimisticRetry;
+    
+    private final BedAllocationService bedAllocationService;
+    
+    private final HostelCache hostelCache;
+    
+    private final ResourceVersions resourceVersions;
+    
+    private final TransactionTemplate transactionTemplate;
+    
+    private final ChangeFeedService changeFeedService;
+    
     private static final String CHARACTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789";
     private static final SecureRandom random = new SecureRandom();
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final TypeReference<Map<String, Object>> WARDEN_CONTACT = new TypeReference<>() {};
 
-    public StudentService(UserRepository userRepository, BedRepository bedRepository, RoomRepository roomRepository, RoomChangeRequestRepository roomChangeRequestRepository, PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository, PasswordEncoder passwordEncoder) {
+    public StudentService(UserRepository userRepository, BedRepository bedRepository, RoomRepository roomRepository, RoomChangeRequestRepository roomChangeRequestRepository, PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository, PasswordEncoder passwordEncoder, OptimisticRetry optimisticRetry, BedAllocationService bedAllocationService, TransactionTemplate transactionTemplate, HostelCache hostelCache, ResourceVersions resourceVersions, ChangeFeedService changeFeedService) {
         this.userRepository = userRepository;
         this.bedRepository = bedRepository;
         this.roomRepository = roomRepository;
         this.roomChangeRequestRepository = roomChangeRequestRepository;
         this.personalDetailsUpdateRequestRepository = personalDetailsUpdateRequestRepository;
         this.passwordEncoder = passwordEncoder;
+        this.optimisticRetry = optimisticRetry;
+        this.bedAllocationService = bedAllocationService;
+        this.hostelCache = hostelCache;
+        this.resourceVersions = resourceVersions;
+        this.transactionTemplate = transactionTemplate;
+        this.changeFeedService = changeFeedService;
     }
 
     public Map<String, Object> createStudent(CreateStudentRequest request) {
@@ -58,8 +92,25 @@ public class StudentService {
         String password = generateRandomPassword();
         String hashedPassword = passwordEncoder.encode(password);
         
+        User savedStudent = userRepository.save(buildStudent(request, hashedPassword));
+        
+        // Prepare response
+        Map<String, Object> studentInfo = getStringObjectMap(savedStudent);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "Student created successfully");
+        response.put("credentials", Map.of(
+            "username", request.getRollNo(),
+            "password", password
+        ));
+        response.put("student", studentInfo);
+        
+        return response;
+    }
+    
+    static User buildStudent(CreateStudentRequest request, String hashedPassword) {
         // Create user with roll number as username
-        User newStudent = new User(
+        return new User(
             request.getRollNo(), // username = roll number
             hashedPassword,
             "student",
@@ -81,21 +132,6 @@ public class StudentService {
             request.getGuardianAddress(),
             request.getGuardianPhone()
         );
-        
-        User savedStudent = userRepository.save(newStudent);
-        
-        // Prepare response
-        Map<String, Object> studentInfo = getStringObjectMap(savedStudent);
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("message", "Student created successfully");
-        response.put("credentials", Map.of(
-            "username", request.getRollNo(),
-            "password", password
-        ));
-        response.put("student", studentInfo);
-        
-        return response;
     }
 
     private static Map<String, Object> getStringObjectMap(User savedStudent) {
@@ -128,25 +164,8 @@ public class StudentService {
             throw new RuntimeException("Student " + rollNumber + " is already assigned to a room");
         }
         
-        // Find the requested bed
-        Optional<Bed> bedOptional = bedRepository.findByRoomIdAndBedNumber(roomId, bedNumber);
-        
-        if (bedOptional.isEmpty() || !"available".equals(bedOptional.get().getStatus())) {
-            throw new RuntimeException("Bed not available");
-        }
-        
-        Bed bed = bedOptional.get();
-        bed.setStudentId(studentId); // Use the actual student ObjectId
-        bed.setStatus("occupied");
-        bedRepository.save(bed);
-        
-        // Update room occupied beds count
-        Room room = roomRepository.findById(roomId).orElse(null);
-        if (room != null) {
-            long occupiedCount = bedRepository.countByRoomIdAndStatus(roomId, "occupied");
-            room.setOccupiedBeds((int) occupiedCount);
-            roomRepository.save(room);
-        }
+        // The conditional claim is the availability check: it fails for a missing or taken bed
+        bedAllocationService.assignBed(studentId, roomId, bedNumber);
     }
     
     public void submitRoomChangeRequest(Long userId, RoomChangeRequestDto requestDto) {
@@ -161,7 +180,8 @@ public class StudentService {
         Long currentRoomId = currentBedOptional.map(Bed::getRoomId).orElse(null);
         System.out.println("Current Room ID: " + currentRoomId);
         
-        // Validate that the requested bed is available
+        // Validate that the requested bed is available. Read from the database rather than the
+        // availability index, which can lag writes made by other replicas
         Optional<Bed> requestedBedOptional = bedRepository.findByRoomIdAndBedNumber(
             requestDto.getRequestedRoomId(), 
             requestDto.getRequestedBedNumber()
@@ -193,69 +213,18 @@ public class StudentService {
         System.out.println("=== End submitRoomChangeRequest ===");
     }
     
+    // Frees the old bed, claims the requested one, moves both rooms' counters and closes the request as one unit
     public void approveRoomChangeRequest(Long requestId) {
-        System.out.println("=== approveRoomChangeRequest ===");
-        System.out.println("Request ID: " + requestId);
-        
-        // Find the room change request
-        Optional<RoomChangeRequest> requestOptional = roomChangeRequestRepository.findById(requestId);
-        if (requestOptional.isEmpty()) {
-            throw new RuntimeException("Room change request not found");
-        }
-        
-        RoomChangeRequest request = requestOptional.get();
-        System.out.println("Student ID: " + request.getStudentId());
-        System.out.println("Requested Room ID: " + request.getRequestedRoomId());
-        System.out.println("Requested Bed Number: " + request.getRequestedBedNumber());
-        
-        if (!"pending".equals(request.getStatus())) {
-            throw new RuntimeException("Request has already been processed");
-        }
-        
-        // Check if the requested bed is still available
-        Optional<Bed> requestedBedOptional = bedRepository.findByRoomIdAndBedNumber(
-            request.getRequestedRoomId(), 
-            request.getRequestedBedNumber()
-        );
-        
-        if (requestedBedOptional.isEmpty()) {
-            throw new RuntimeException("Requested bed no longer exists");
-        }
-        
-        Bed requestedBed = requestedBedOptional.get();
-        if (!"available".equals(requestedBed.getStatus())) {
-            throw new RuntimeException("Requested bed is no longer available");
-        }
-        
-        // Get student's current bed (if any)
-        Optional<Bed> currentBedOptional = bedRepository.findByStudentId(request.getStudentId());
-        
-        // Free up current bed if student has one
-        if (currentBedOptional.isPresent()) {
-            Bed currentBed = currentBedOptional.get();
-            System.out.println("Freeing current bed: Room " + currentBed.getRoomId() + ", Bed " + currentBed.getBedNumber());
-            currentBed.setStudentId(null);
-            currentBed.setStatus("available");
-            bedRepository.save(currentBed);
-        }
-        
-        // Assign the new bed to the student
-        System.out.println("Assigning new bed: Room " + requestedBed.getRoomId() + ", Bed " + requestedBed.getBedNumber());
-        requestedBed.setStudentId(request.getStudentId());
-        requestedBed.setStatus("occupied");
-        bedRepository.save(requestedBed);
-        
-        // Update the room change request status
-        request.setStatus("approved");
-        request.setProcessedAt(LocalDateTime.now());
-        request.setProcessedBy("warden"); // In a real system, this would be the current user's ID
-        roomChangeRequestRepository.save(request);
-        
-        System.out.println("Room change request approved successfully");
-        System.out.println("=== End approveRoomChangeRequest ===");
+        bedAllocationService.approveRoomChange(requestId, "warden"); // In a real system, this would be the current user's ID
     }
     
+    // Each attempt re-reads the request in its own transaction
     public void rejectRoomChangeRequest(Long requestId) {
+        optimisticRetry.run("room_change.reject", () ->
+            transactionTemplate.executeWithoutResult(status -> applyRoomChangeRejection(requestId)));
+    }
+    
+    private void applyRoomChangeRejection(Long requestId) {
         System.out.println("=== rejectRoomChangeRequest ===");
         System.out.println("Request ID: " + requestId);
         
@@ -282,6 +251,12 @@ public class StudentService {
         System.out.println("=== End rejectRoomChangeRequest ===");
     }
     
+    // Any bed change or student edit retires it; the user id keeps one student's tag from matching another's
+    public String getStudentRoomEtag(Long userId) {
+        String etag = resourceVersions.etag(ResourceVersions.ROOMS, ResourceVersions.STUDENTS);
+        return etag == null ? null : etag + "-" + userId;
+    }
+    
     public Map<String, Object> getStudentRoom(Long userId) {
         Optional<Bed> myBedOptional = bedRepository.findByStudentId(userId);
         
@@ -300,12 +275,17 @@ public class StudentService {
         
         // Get roommates
         List<Bed> roomBeds = bedRepository.findByRoomId(myBed.getRoomId());
-        List<Map<String, Object>> roommates = roomBeds.stream()
-            .filter(bed -> bed.getStudentId() != null && !bed.getStudentId().equals(userId))
-            .map(bed -> {
-                User student = userRepository.findById(bed.getStudentId()).orElse(null);
+        List<Long> roommateIds = roomBeds.stream()
+            .map(Bed::getStudentId)
+            .filter(studentId -> studentId != null && !studentId.equals(userId))
+            .collect(Collectors.toList());
+        Map<Long, String> roommateNames = roommateIds.isEmpty() ? Map.of() :
+            userRepository.findByIdIn(roommateIds).stream()
+                .collect(Collectors.toMap(UserNameView::getId, view -> Objects.toString(view.getFullName(), "Unknown")));
+        List<Map<String, Object>> roommates = roommateIds.stream()
+            .map(studentId -> {
                 Map<String, Object> roommateMap = new HashMap<>();
-                roommateMap.put("full_name", student != null ? student.getFullName() : "Unknown");
+                roommateMap.put("full_name", roommateNames.getOrDefault(studentId, "Unknown"));
                 return roommateMap;
             })
             .collect(Collectors.toList());
@@ -326,51 +306,117 @@ public class StudentService {
         return roomChangeRequestRepository.findAllByOrderByRequestedAtDesc();
     }
     
-    public List<Map<String, Object>> getAllStudents() {
-        System.out.println("=== getAllStudents ===");
-        
-        // Get all users with role "student"
-        List<User> students = userRepository.findByRole("student");
-        System.out.println("Found " + students.size() + " students");
-        
-        return students.stream().map(student -> {
-            Map<String, Object> studentMap = new HashMap<>();
-            studentMap.put("id", student.getId());
-            studentMap.put("full_name", student.getFullName());
-            studentMap.put("username", student.getUsername());
-            studentMap.put("email", student.getEmail());
-            studentMap.put("phone", student.getPhone());
-            studentMap.put("date_of_birth", student.getDateOfBirth());
-            studentMap.put("gender", student.getGender());
-            studentMap.put("aadhaar_id", student.getAadhaarId());
-            studentMap.put("roll_no", student.getRollNo());
-            studentMap.put("stream", student.getStream());
-            studentMap.put("branch", student.getBranch());
-            studentMap.put("created_at", student.getCreatedAt());
-            studentMap.put("first_login", student.getFirstLogin());
-            
-            // Get room assignment information
-            Optional<Bed> assignedBed = bedRepository.findByStudentId(student.getId());
-            if (assignedBed.isPresent()) {
-                Optional<Room> room = roomRepository.findById(assignedBed.get().getRoomId());
-                if (room.isPresent()) {
-                    studentMap.put("room_id", room.get().getId());
-                    studentMap.put("room_number", room.get().getRoomNumber());
-                    studentMap.put("bed_number", assignedBed.get().getBedNumber());
-                } else {
-                    studentMap.put("room_id", null);
-                    studentMap.put("room_number", null);
-                    studentMap.put("bed_number", null);
-                }
-            } else {
-                studentMap.put("room_id", null);
-                studentMap.put("room_number", null);
-                studentMap.put("bed_number", null);
-            }
-            
-            return studentMap;
+    public List<Map<String, Object>> getRoomChangeRequestsWithDetails(String status) {
+        List<RoomChangeRequest> requests = status == null || status.isBlank()
+            ? roomChangeRequestRepository.findAllByOrderByRequestedAtDesc()
+            : roomChangeRequestRepository.findByStatusOrderByRequestedAtDesc(status);
+        return toRoomChangeRequestDetails(requests);
+    }
+    
+    public CursorPage<Map<String, Object>> getRoomChangeRequestsPage(String status, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        Pageable firstPage = PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.DESC, "id"));
+        boolean filtered = status != null && !status.isBlank();
+        List<RoomChangeRequest> rows;
+        if (after == null) {
+            rows = filtered ? roomChangeRequestRepository.findByStatus(status, firstPage)
+                : roomChangeRequestRepository.findAllBy(firstPage);
+        } else {
+            rows = filtered ? roomChangeRequestRepository.findByStatusAndIdLessThan(status, after, firstPage)
+                : roomChangeRequestRepository.findByIdLessThan(after, firstPage);
+        }
+        
+        CursorPage<RoomChangeRequest> page = CursorPage.of(rows, pageSize, RoomChangeRequest::getId);
+        return new CursorPage<>(toRoomChangeRequestDetails(page.getItems()), page.getNextCursor());
+    }
+    
+    private List<Map<String, Object>> toRoomChangeRequestDetails(List<RoomChangeRequest> requests) {
+        if (requests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        // Resolve every referenced student and room in two bulk lookups, then join in memory
+        Set<Long> studentIds = new HashSet<>();
+        Set<Long> roomIds = new HashSet<>();
+        for (RoomChangeRequest request : requests) {
+            studentIds.add(request.getStudentId());
+            roomIds.add(request.getCurrentRoomId());
+            roomIds.add(request.getRequestedRoomId());
+        }
+        studentIds.remove(null);
+        roomIds.remove(null);
+        
+        Map<Long, String> studentNames = userRepository.findByIdIn(studentIds).stream()
+            .collect(Collectors.toMap(UserNameView::getId, view -> Objects.toString(view.getFullName(), "Unknown")));
+        Map<Long, String> roomNumbers = new HashMap<>();
+        roomRepository.findAllById(roomIds).forEach(room -> roomNumbers.put(room.getId(), room.getRoomNumber()));
+        
+        return requests.stream().map(request -> {
+            Map<String, Object> requestMap = new HashMap<>();
+            requestMap.put("id", request.getId());
+            requestMap.put("student_id", request.getStudentId());
+            requestMap.put("student_name", studentNames.getOrDefault(request.getStudentId(), "Unknown"));
+            requestMap.put("current_room_id", request.getCurrentRoomId() != null ? request.getCurrentRoomId() : "");
+            requestMap.put("current_room", request.getCurrentRoomId() != null ? roomNumbers.get(request.getCurrentRoomId()) : null);
+            requestMap.put("requested_room_id", request.getRequestedRoomId());
+            requestMap.put("requested_room", roomNumbers.getOrDefault(request.getRequestedRoomId(), "Unknown"));
+            requestMap.put("requested_bed_number", request.getRequestedBedNumber());
+            requestMap.put("reason", request.getReason());
+            requestMap.put("status", request.getStatus());
+            requestMap.put("requested_at", request.getRequestedAt());
+            requestMap.put("processed_at", request.getProcessedAt());
+            requestMap.put("processed_by", request.getProcessedBy());
+            return requestMap;
         }).collect(Collectors.toList());
     }
+    
+    public List<Map<String, Object>> getAllStudents() {
+        // One joined query (MySQL) / one aggregation (MongoDB) instead of two lookups per student
+        return userRepository.findStudentRoster().stream()
+            .map(StudentService::toRosterMap)
+            .collect(Collectors.toList());
+    }
+    
+    public List<Map<String, Object>> getStudents(String stream, String branch, Boolean assigned) {
+        return userRepository.findStudentRosterPage(stream, branch, assigned, null, null).stream()
+            .map(StudentService::toRosterMap)
+            .collect(Collectors.toList());
+    }
+    
+    public CursorPage<Map<String, Object>> getStudentsPage(String stream, String branch, Boolean assigned, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<StudentRosterEntry> rows = userRepository.findStudentRosterPage(stream, branch, assigned, after, pageSize + 1);
+        return CursorPage.of(rows, pageSize, StudentRosterEntry::getId).map(StudentService::toRosterMap);
+    }
+    
+    private static int pageSize(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    static Map<String, Object> toRosterMap(StudentRosterEntry entry) {
+        Map<String, Object> studentMap = new HashMap<>();
+        studentMap.put("id", entry.getId());
+        studentMap.put("full_name", entry.getFullName());
+        studentMap.put("username", entry.getUsername());
+        studentMap.put("email", entry.getEmail());
+        studentMap.put("phone", entry.getPhone());
+        studentMap.put("date_of_birth", entry.getDateOfBirth());
+        studentMap.put("gender", entry.getGender());
+        studentMap.put("aadhaar_id", entry.getAadhaarId());
+        studentMap.put("roll_no", entry.getRollNo());
+        studentMap.put("stream", entry.getStream());
+        studentMap.put("branch", entry.getBranch());
+        studentMap.put("created_at", entry.getCreatedAt());
+        studentMap.put("first_login", entry.getFirstLogin());
+        
+        // Room assignment information (a bed pointing at a missing room counts as unassigned)
+        boolean assigned = entry.getRoomId() != null;
+        studentMap.put("room_id", assigned ? entry.getRoomId() : null);
+        studentMap.put("room_number", assigned ? entry.getRoomNumber() : null);
+        studentMap.put("bed_number", assigned ? entry.getBedNumber() : null);
+        
+        return studentMap;
+    }
 
     public Map<String, Object> getStudentById(Long id) {
         System.out.println("=== getStudentById: " + id + " ===");
@@ -439,12 +485,19 @@ public class StudentService {
         }
         
         User updatedStudent = userRepository.save(student);
+        evictOccupiedRoomDetails(id);
+        resourceVersions.bumpAfterCommit(ResourceVersions.STUDENTS);
         System.out.println("Student updated successfully");
         
         return getStudentById(updatedStudent.getId());
     }
 
+    // One transaction, so the change feed tombstones commit with the deletes
     public void deleteStudent(Long id) {
+        transactionTemplate.executeWithoutResult(status -> applyStudentDeletion(id));
+    }
+    
+    private void applyStudentDeletion(Long id) {
         System.out.println("=== deleteStudent: " + id + " ===");
         
         Optional<User> studentOptional = userRepository.findById(id);
@@ -457,28 +510,35 @@ public class StudentService {
             throw new RuntimeException("User is not a student");
         }
         
+        evictOccupiedRoomDetails(id);
+        resourceVersions.bumpAfterCommit(ResourceVersions.STUDENTS);
+        
         // Remove student from any assigned bed
-        Optional<Bed> assignedBed = bedRepository.findByStudentId(id);
-        if (assignedBed.isPresent()) {
-            Bed bed = assignedBed.get();
-            bed.setStudentId(null);
-            bed.setStatus("available");
-            bedRepository.save(bed);
-            System.out.println("Student removed from bed " + bed.getBedNumber());
-        }
+        bedAllocationService.releaseStudentBed(id)
+            .ifPresent(bed -> System.out.println("Student removed from bed " + bed.getBedNumber()));
         
         // Delete any room change requests
         List<RoomChangeRequest> requests = roomChangeRequestRepository.findByStudentId(id);
         if (!requests.isEmpty()) {
             roomChangeRequestRepository.deleteAll(requests);
+            changeFeedService.recordDeleted(ChangeFeedService.ROOM_CHANGE_REQUESTS,
+                requests.stream().map(RoomChangeRequest::getId).collect(Collectors.toList()));
             System.out.println("Deleted " + requests.size() + " room change requests");
         }
         
         // Delete the student
         userRepository.delete(student);
+        changeFeedService.recordDeleted(ChangeFeedService.STUDENTS, List.of(id));
         System.out.println("Student deleted successfully");
     }
     
+    // Room details list their occupants' names, so the cached details of the student's room are
+    // dropped along with the students version bump; both take effect after commit
+    private void evictOccupiedRoomDetails(Long studentId) {
+        bedRepository.findByStudentId(studentId)
+            .ifPresent(bed -> hostelCache.evictAfterCommit(HostelCache.ROOM_DETAILS, String.valueOf(bed.getRoomId())));
+    }
+    
     private void validateStudentRequest(CreateStudentRequest request) {
         // Check if username (roll number) already exists
         if (userRepository.existsByUsername(request.getRollNo())) {
@@ -506,7 +566,7 @@ public class StudentService {
         }
     }
     
-    private String generateRandomPassword() {
+    static String generateRandomPassword() {
         StringBuilder sb = new StringBuilder(8);
         for (int i = 0; i < 8; i++) {
             sb.append(CHARACTERS.charAt(random.nextInt(CHARACTERS.length())));
@@ -516,7 +576,10 @@ public class StudentService {
     
     public Map<String, Object> getWardenContact() {
         System.out.println("=== getWardenContact ===");
-        
+        return hostelCache.get(HostelCache.WARDEN_CONTACT, "warden", WARDEN_CONTACT, this::loadWardenContact);
+    }
+    
+    private Map<String, Object> loadWardenContact() {
         // Find the warden user
         Optional<User> wardenOptional = userRepository.findByRole("warden").stream().findFirst();
         
@@ -597,8 +660,36 @@ public class StudentService {
         
         return requests;
     }
+    
+    public List<PersonalDetailsUpdateRequest> getPersonalDetailsUpdateRequests(String status) {
+        if (status == null || status.isBlank()) {
+            return getAllPersonalDetailsUpdateRequests();
+        }
+        return personalDetailsUpdateRequestRepository.findByStatus(status);
+    }
+    
+    public CursorPage<PersonalDetailsUpdateRequest> getPersonalDetailsUpdateRequestsPage(String status, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        Pageable firstPage = PageRequest.of(0, pageSize + 1, Sort.by(Sort.Direction.DESC, "id"));
+        boolean filtered = status != null && !status.isBlank();
+        List<PersonalDetailsUpdateRequest> rows;
+        if (after == null) {
+            rows = filtered ? personalDetailsUpdateRequestRepository.findByStatus(status, firstPage)
+                : personalDetailsUpdateRequestRepository.findAllBy(firstPage);
+        } else {
+            rows = filtered ? personalDetailsUpdateRequestRepository.findByStatusAndIdLessThan(status, after, firstPage)
+                : personalDetailsUpdateRequestRepository.findByIdLessThan(after, firstPage);
+        }
+        return CursorPage.of(rows, pageSize, PersonalDetailsUpdateRequest::getId);
+    }
 
+    // Each attempt re-reads the request in its own transaction; a concurrent approval surfaces as "already processed"
     public void approvePersonalDetailsUpdateRequest(Long requestId, String wardenComments) {
+        optimisticRetry.run("personal_details.approve", () ->
+            transactionTemplate.executeWithoutResult(status -> applyPersonalDetailsApproval(requestId, wardenComments)));
+    }
+    
+    private void applyPersonalDetailsApproval(Long requestId, String wardenComments) {
         System.out.println("=== approvePersonalDetailsUpdateRequest ===");
         System.out.println("Request ID: " + requestId);
         System.out.println("Warden Comments: " + wardenComments);
@@ -625,6 +716,24 @@ public class StudentService {
         System.out.println("Found student: " + student.getFullName());
 
         // Update student's personal details
+        copyPersonalDetails(request, student);
+
+        // Save updated student
+        userRepository.save(student);
+        System.out.println("Student details updated successfully");
+
+        // Update request status
+        request.setStatus("approved");
+        request.setProcessedAt(LocalDateTime.now());
+        request.setProcessedBy("warden"); // You might want to get actual warden ID
+        request.setWardenComments(wardenComments);
+
+        personalDetailsUpdateRequestRepository.save(request);
+        System.out.println("Personal details update request approved and processed");
+    }
+
+    // Copies the non-blank fields of a personal details request onto the student; shared with the bulk decisions
+    static void copyPersonalDetails(PersonalDetailsUpdateRequest request, User student) {
         if (request.getPhone() != null && !request.getPhone().trim().isEmpty()) {
             student.setPhone(request.getPhone());
         }
@@ -652,22 +761,15 @@ public class StudentService {
         if (request.getGuardianAddress() != null && !request.getGuardianAddress().trim().isEmpty()) {
             student.setGuardianAddress(request.getGuardianAddress());
         }
-
-        // Save updated student
-        userRepository.save(student);
-        System.out.println("Student details updated successfully");
-
-        // Update request status
-        request.setStatus("approved");
-        request.setProcessedAt(LocalDateTime.now());
-        request.setProcessedBy("warden"); // You might want to get actual warden ID
-        request.setWardenComments(wardenComments);
-
-        personalDetailsUpdateRequestRepository.save(request);
-        System.out.println("Personal details update request approved and processed");
     }
 
+    // Each attempt re-reads the request in its own transaction
     public void rejectPersonalDetailsUpdateRequest(Long requestId, String wardenComments) {
+        optimisticRetry.run("personal_details.reject", () ->
+            transactionTemplate.executeWithoutResult(status -> applyPersonalDetailsRejection(requestId, wardenComments)));
+    }
+    
+    private void applyPersonalDetailsRejection(Long requestId, String wardenComments) {
         System.out.println("=== rejectPersonalDetailsUpdateRequest ===");
         System.out.println("Request ID: " + requestId);
         System.out.println("Warden Comments: " + wardenComments);
@@ -0,0 +1,115 @@
+package com.hostel.security;
+
+import com.hostel.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token in JwtAuthenticationFilter. The old filter made
+ * five calls that each rebuilt the signing key and parser and verified the signature again; the
+ * current filter calls JwtUtil.verify once, which parses a token on its first request and then
+ * serves the verified claims from the cache.
+ *
+ * Skipped in the normal build; run with mvn test -Dtest=JwtVerifyBenchmark -Djmh=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtVerifyBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-that-is-long-enough-for-hs256";
+
+    private String token;
+
+    // Cache disabled, so every call parses and verifies the token once
+    private JwtUtil uncached;
+
+    private JwtUtil cached;
+
+    @Setup
+    public void setUp() {
+        uncached = jwtUtil(0);
+        cached = jwtUtil(10000);
+        token = cached.generateToken("student1", "student", "42");
+    }
+
+    @Benchmark
+    public void oldFilterPath(Blackhole blackhole) {
+        String username = oldClaims(token).getSubject();
+        blackhole.consume(oldClaims(token).get("role", String.class));
+        blackhole.consume(oldClaims(token).get("userId", String.class));
+        // validateToken: the username again, then the expiry
+        blackhole.consume(oldClaims(token).getSubject().equals(username)
+            && !oldClaims(token).getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCacheMiss() {
+        return uncached.verify(token);
+    }
+
+    @Benchmark
+    public JwtUtil.VerifiedToken verifyCacheHit() {
+        return cached.verify(token);
+    }
+
+    // JwtUtil before the verified-claims cache: a new key and parser for every claim read
+    private static Claims oldClaims(String token) {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser()
+                .verifyWith(key)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtUtil jwtUtil(long verifiedCacheSize) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setExpiration(TimeUnit.HOURS.toMillis(1));
+        properties.setVerifiedCacheSize(verifiedCacheSize);
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "jwtProperties", properties);
+        ReflectionTestUtils.setField(jwtUtil, "meterRegistry", new SimpleMeterRegistry());
+        jwtUtil.init();
+        return jwtUtil;
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "jmh", matches = "true")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtVerifyBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new JwtVerifyBenchmark().run();
+    }
+}
@@ -0,0 +1,76 @@
+package com.hostel.service;
+
+import com.hostel.model.User;
+import com.hostel.repository.UserRepository;
+import com.hostel.security.JwtUtil;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Users stay out of the second-level cache: its regions are per replica, so a cached entry would
+ * keep an old password hash alive on the other replicas after a password change.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.datasource.url=jdbc:h2:mem:password-change;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+})
+// Each repository call commits, as it does in the application
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PasswordChangeCacheTest {
+
+    @Configuration
+    @EntityScan("com.hostel.model")
+    @EnableJpaRepositories("com.hostel.repository")
+    @Import(AuthService.class)
+    static class Beans {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder();
+        }
+    }
+
+    @MockBean
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void usersAreNotSecondLevelCached() {
+        User user = new User("student1", passwordEncoder.encode("old-password"), "student", "Student One", "student1@example.com", "9876543210");
+        Long userId = userRepository.save(user).getId();
+        Cache cache = entityManagerFactory.getCache();
+        userRepository.findById(userId);
+        assertThat(cache.contains(User.class, userId)).isFalse();
+
+        authService.changePassword(userId, "old-password", "new-password");
+
+        User reloaded = userRepository.findById(userId).orElseThrow();
+        assertThat(passwordEncoder.matches("new-password", reloaded.getPassword())).isTrue();
+        assertThat(reloaded.getFirstLogin()).isFalse();
+    }
+}
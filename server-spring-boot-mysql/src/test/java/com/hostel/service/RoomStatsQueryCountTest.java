@@ -0,0 +1,149 @@
+package com.hostel.service;
+
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.LocalHostelCache;
+import com.hostel.cache.LocalResourceVersions;
+import com.hostel.config.HostelCacheProperties;
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The room list must cost the same number of statements however many rooms there are: bed counts
+ * come from one grouped query, never one query per room.
+ */
+@DataJpaTest(properties = {
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+    "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+    "spring.datasource.url=jdbc:h2:mem:room-stats;MODE=MySQL;DATABASE_TO_LOWER=TRUE"
+})
+class RoomStatsQueryCountTest {
+
+    // Only the room services; the application class would pull in every service through its startup runner
+    @Configuration
+    @EntityScan("com.hostel.model")
+    @EnableJpaRepositories("com.hostel.repository")
+    @Import({RoomService.class, BedAvailabilityIndex.class, OptimisticRetry.class})
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        HostelCache hostelCache(MeterRegistry meterRegistry) {
+            return new LocalHostelCache(new HostelCacheProperties(), meterRegistry);
+        }
+
+        @Bean
+        LocalResourceVersions resourceVersions() {
+            return new LocalResourceVersions();
+        }
+    }
+
+    @Autowired
+    private RoomService roomService;
+
+    @Autowired
+    private HostelCache hostelCache;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BedRepository bedRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void enableStatistics() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void roomListStatementCountDoesNotGrowWithRooms() {
+        createRooms(1);
+        long oneRoom = statementsForRoomList();
+
+        createRooms(49);
+        long fiftyRooms = statementsForRoomList();
+
+        assertThat(roomService.getAllRoomsWithStats()).hasSize(50);
+        assertThat(fiftyRooms).isEqualTo(oneRoom);
+    }
+
+    @Test
+    void groupedBedCountIsOneStatement() {
+        createRooms(1);
+        long oneRoom = statementsFor(() -> bedRepository.countGroupedByRoomIdAndStatus());
+
+        createRooms(49);
+        long fiftyRooms = statementsFor(() -> bedRepository.countGroupedByRoomIdAndStatus());
+
+        assertThat(bedRepository.countGroupedByRoomIdAndStatus()).hasSize(100);
+        assertThat(oneRoom).isEqualTo(1);
+        assertThat(fiftyRooms).isEqualTo(1);
+    }
+
+    private long statementsForRoomList() {
+        hostelCache.evictAll(HostelCache.ROOMS);
+        return statementsFor(() -> roomService.getAllRoomsWithStats());
+    }
+
+    private long statementsFor(Runnable action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    // Each room gets one occupied and one free bed
+    private void createRooms(int count) {
+        long existing = roomRepository.count();
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room("R" + (existing + i), 1, 2, "double"));
+        }
+        roomRepository.saveAll(rooms);
+        List<Bed> beds = new ArrayList<>();
+        for (Room room : rooms) {
+            Bed occupied = new Bed(room.getId(), 1);
+            occupied.setStatus("occupied");
+            occupied.setStudentId(room.getId());
+            beds.add(occupied);
+            beds.add(new Bed(room.getId(), 2));
+        }
+        bedRepository.saveAll(beds);
+        entityManager.flush();
+    }
+}
@@ -1,23 +1,43 @@
 package com.hostel;
 
+import com.hostel.service.BedAvailabilityIndex;
 import com.hostel.service.DataInitializationService;
+import com.hostel.service.IndexVerificationService;
+import com.hostel.service.OccupancyReconciliationService;
+import com.hostel.service.VersionBackfillService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.data.mongodb.config.EnableMongoAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableMongoAuditing
+@EnableScheduling
 public class HostelManagementSystemApplication implements CommandLineRunner {
 
     private static final Logger logger = LoggerFactory.getLogger(HostelManagementSystemApplication.class);
 
     private final DataInitializationService initializationService;
 
-    public HostelManagementSystemApplication(DataInitializationService initializationService) {
+    private final IndexVerificationService indexVerificationService;
+
+    private final VersionBackfillService versionBackfillService;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final OccupancyReconciliationService occupancyReconciliationService;
+
+    public HostelManagementSystemApplication(DataInitializationService initializationService, IndexVerificationService indexVerificationService,
+                                             VersionBackfillService versionBackfillService,
+                                             BedAvailabilityIndex bedAvailabilityIndex, OccupancyReconciliationService occupancyReconciliationService) {
         this.initializationService = initializationService;
+        this.indexVerificationService = indexVerificationService;
+        this.versionBackfillService = versionBackfillService;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.occupancyReconciliationService = occupancyReconciliationService;
     }
 
     public static void main(String[] args) {
@@ -28,6 +48,10 @@ public class HostelManagementSystemApplication implements CommandLineRunner {
 
     @Override
     public void run(String... args) {
+        indexVerificationService.verifyIndexes();
+        versionBackfillService.backfillVersions();
         initializationService.initializeData();
+        occupancyReconciliationService.reconcile(true);
+        bedAvailabilityIndex.rebuild();
     }
 }
\ No newline at end of file
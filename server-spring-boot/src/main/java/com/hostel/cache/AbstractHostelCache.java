@@ -0,0 +1,68 @@
+package com.hostel.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Read-through logic and the hostel.cache.gets counters, tagged by cache name, shared by both
+ * implementations. Misses for the same key are coalesced: one caller loads while concurrent callers,
+ * and those arriving within the coalesce window, share its result and count as coalesced, so a burst
+ * of polls right after an eviction runs the query once. Evicting a key cancels its load so a value
+ * read before a write is not stored after it; implementations cancel before removing the stored
+ * value, so a store that wins the race against the cancel is removed with it.
+ */
+public abstract class AbstractHostelCache implements HostelCache {
+
+    protected static final String ALL_KEYS = "*";
+
+    private final MeterRegistry meterRegistry;
+
+    private final SingleFlight singleFlight;
+
+    protected AbstractHostelCache(MeterRegistry meterRegistry, Duration coalesceWindow) {
+        this.meterRegistry = meterRegistry;
+        this.singleFlight = new SingleFlight(coalesceWindow);
+    }
+
+    @Override
+    public <T> T get(String cacheName, String key, TypeReference<T> type, Supplier<T> loader) {
+        T cached = lookup(cacheName, key, type);
+        if (cached != null) {
+            meterRegistry.counter("hostel.cache.gets", "cache", cacheName, "result", "hit").increment();
+            return cached;
+        }
+        SingleFlight.Outcome<T> outcome = singleFlight.execute(flightKey(cacheName, key), loader);
+        if (!outcome.isLeader()) {
+            meterRegistry.counter("hostel.cache.gets", "cache", cacheName, "result", "coalesced").increment();
+            return outcome.getValue();
+        }
+        meterRegistry.counter("hostel.cache.gets", "cache", cacheName, "result", "miss").increment();
+        T value = outcome.getValue();
+        if (value != null) {
+            outcome.storeUnlessCancelled(() -> store(cacheName, key, value));
+        }
+        return value;
+    }
+
+    // Returns the keys whose cancelled loads had already been stored
+    protected List<String> cancelLoads(String cacheName, String key) {
+        String prefix = flightKey(cacheName, "");
+        if (ALL_KEYS.equals(key)) {
+            return singleFlight.forgetAll(prefix).stream().map(flightKey -> flightKey.substring(prefix.length())).collect(Collectors.toList());
+        }
+        return singleFlight.forget(flightKey(cacheName, key)) ? List.of(key) : List.of();
+    }
+
+    private static String flightKey(String cacheName, String key) {
+        return cacheName + ":" + key;
+    }
+
+    protected abstract <T> T lookup(String cacheName, String key, TypeReference<T> type);
+
+    protected abstract void store(String cacheName, String key, Object value);
+}
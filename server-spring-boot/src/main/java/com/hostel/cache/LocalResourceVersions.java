@@ -0,0 +1,34 @@
+package com.hostel.cache;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process counters. The epoch is new on every start, so ETags handed out before a restart never
+ * match again.
+ */
+public class LocalResourceVersions implements ResourceVersions {
+
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    @Override
+    public String etag(String... resources) {
+        StringBuilder etag = new StringBuilder(epoch);
+        for (String resource : resources) {
+            AtomicLong version = versions.get(resource);
+            etag.append('-').append(version == null ? 0 : version.get());
+        }
+        return etag.toString();
+    }
+
+    @Override
+    public void bump(String... resources) {
+        for (String resource : resources) {
+            versions.computeIfAbsent(resource, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hostel.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Version counters for the resources clients poll, used as strong ETags so an unchanged resource is
+ * answered with a 304 without reading it. Writers bump every resource they change once the change
+ * has committed; readers take the ETag before loading the body, so a response is never tagged
+ * newer than its content. Counters live in process or in Redis, following app.cache.type, and
+ * every ETag carries an epoch that changes whenever the counters are lost.
+ */
+public interface ResourceVersions {
+
+    // Room list and the bed set behind it: any bed change or new room
+    String ROOMS = "rooms";
+
+    // Student records shown on room views, e.g. occupant names
+    String STUDENTS = "students";
+
+    String MENU = "menu";
+
+    static String room(Object roomId) {
+        return "room:" + roomId;
+    }
+
+    /**
+     * An ETag that changes whenever any of the resources is bumped, or null when the counters are
+     * unavailable and the response should be sent without one.
+     */
+    String etag(String... resources);
+
+    void bump(String... resources);
+
+    default void bumpAfterCommit(String... resources) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(resources);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(resources);
+            }
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.hostel.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical computations: the first caller for a key runs the loader and every
+ * caller arriving while it runs, or within the freshness window after it finished, shares its
+ * result or exception. Forgetting a key cancels its flight, so callers that arrive after a write
+ * start a fresh computation and the cancelled leader knows not to cache what it loaded. The
+ * leader's store and the cancel lock the flight, so a cancel never lands between the leader's check
+ * and its store: either the store is skipped, or it finishes before the cancel returns and the
+ * eviction that follows removes it.
+ */
+public class SingleFlight {
+
+    private final Map<String, Flight> flights = new ConcurrentHashMap<>();
+
+    private final long freshWindowNanos;
+
+    public SingleFlight(Duration freshWindow) {
+        this.freshWindowNanos = freshWindow.toNanos();
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> Outcome<T> execute(String key, Supplier<T> loader) {
+        while (true) {
+            Flight existing = flights.get(key);
+            if (existing != null && existing.shareable(System.nanoTime(), freshWindowNanos)) {
+                return new Outcome<>((T) existing.await(), null);
+            }
+            Flight flight = new Flight();
+            boolean leader = existing == null ? flights.putIfAbsent(key, flight) == null : flights.replace(key, existing, flight);
+            if (!leader) {
+                continue;
+            }
+            try {
+                T value = loader.get();
+                flight.complete(value);
+                return new Outcome<>(value, flight);
+            } catch (RuntimeException | Error e) {
+                flights.remove(key, flight);
+                flight.fail(e);
+                throw e;
+            }
+        }
+    }
+
+    // Returns whether the cancelled flight's value had already been stored
+    public boolean forget(String key) {
+        Flight flight = flights.remove(key);
+        return flight != null && flight.cancel();
+    }
+
+    // Returns the keys whose cancelled flights had already stored their value
+    public List<String> forgetAll(String keyPrefix) {
+        List<String> stored = new ArrayList<>();
+        for (String key : flights.keySet()) {
+            if (key.startsWith(keyPrefix) && forget(key)) {
+                stored.add(key);
+            }
+        }
+        return stored;
+    }
+
+    /**
+     * A result and whether this caller computed it; a cancelled leader's value was loaded across a
+     * write and must not be cached.
+     */
+    public static final class Outcome<T> {
+        private final T value;
+        // Set for the leader only
+        private final Flight flight;
+
+        Outcome(T value, Flight flight) {
+            this.value = value;
+            this.flight = flight;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        public boolean isLeader() {
+            return flight != null;
+        }
+
+        // Runs the leader's store unless the flight has been cancelled; returns whether it ran
+        public boolean storeUnlessCancelled(Runnable store) {
+            return flight != null && flight.store(store);
+        }
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> future = new CompletableFuture<>();
+        private volatile long completedAt;
+        private volatile boolean cancelled;
+        // Guarded by the flight's lock
+        private boolean stored;
+
+        boolean shareable(long now, long freshWindowNanos) {
+            if (cancelled || future.isCompletedExceptionally()) {
+                return false;
+            }
+            return !future.isDone() || now - completedAt <= freshWindowNanos;
+        }
+
+        void complete(Object value) {
+            completedAt = System.nanoTime();
+            future.complete(value);
+        }
+
+        synchronized boolean store(Runnable store) {
+            if (cancelled) {
+                return false;
+            }
+            store.run();
+            stored = true;
+            return true;
+        }
+
+        synchronized boolean cancel() {
+            cancelled = true;
+            return stored;
+        }
+
+        void fail(Throwable error) {
+            future.completeExceptionally(error);
+        }
+
+        Object await() {
+            try {
+                return future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.hostel.controller;
 
 import com.hostel.service.RoomService;
+import com.hostel.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -11,8 +12,8 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -38,10 +39,41 @@ public class RoomController {
         @ApiResponse(responseCode = "500", description = "Internal server error",
             content = @Content(schema = @Schema(example = "{\"error\": \"Database error\"}")))
     })
-    public ResponseEntity<?> getAllRooms() {
+    public ResponseEntity<?> getAllRooms(WebRequest webRequest) {
         try {
-            List<Map<String, Object>> roomsWithStats = roomService.getAllRoomsWithStats();
-            return ResponseEntity.ok(roomsWithStats);
+            return ConditionalGet.respond(webRequest, roomService.getRoomListEtag(), roomService::getAllRoomsWithStats);
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Database error"));
+        }
+    }
+    
+    @GetMapping("/rooms/available")
+    @Operation(
+        summary = "Get Available Rooms",
+        description = "Rooms with at least one free bed, optionally filtered by floor and room type"
+    )
+    public ResponseEntity<?> getAvailableRooms(
+            @Parameter(description = "Floor number") @RequestParam(required = false) Integer floor,
+            @Parameter(description = "Room type") @RequestParam(name = "room_type", required = false) String roomType) {
+        try {
+            return ResponseEntity.ok(roomService.getAvailableRooms(floor, roomType));
+            
+        } catch (Exception e) {
+            return ResponseEntity.status(500)
+                .body(Map.of("error", "Database error"));
+        }
+    }
+    
+    @GetMapping("/rooms/statistics")
+    @Operation(
+        summary = "Get Room Statistics",
+        description = "Room and bed occupancy totals with free beds per room type"
+    )
+    public ResponseEntity<?> getRoomStatistics() {
+        try {
+            return ResponseEntity.ok(roomService.getRoomStatistics());
             
         } catch (Exception e) {
             return ResponseEntity.status(500)
@@ -50,10 +82,9 @@ public class RoomController {
     }
     
     @GetMapping("/rooms/{roomId}")
-    public ResponseEntity<?> getRoomDetails(@PathVariable String roomId) {
+    public ResponseEntity<?> getRoomDetails(@PathVariable String roomId, WebRequest webRequest) {
         try {
-            Map<String, Object> roomDetails = roomService.getRoomDetails(roomId);
-            return ResponseEntity.ok(roomDetails);
+            return ConditionalGet.respond(webRequest, roomService.getRoomEtag(roomId), () -> roomService.getRoomDetails(roomId));
             
         } catch (RuntimeException e) {
             return ResponseEntity.status(404)
@@ -2,6 +2,7 @@ package com.hostel.controller;
 
 import com.hostel.dto.RoomChangeRequestDto;
 import com.hostel.service.StudentService;
+import com.hostel.util.ConditionalGet;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -12,8 +13,10 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.Map;
 
@@ -69,7 +72,7 @@ public class StudentController {
     }
     
     @GetMapping("/my-room")
-    public ResponseEntity<?> getMyRoom(HttpServletRequest request) {
+    public ResponseEntity<?> getMyRoom(HttpServletRequest request, WebRequest webRequest) {
         try {
             String userId = (String) request.getAttribute("userId");
             
@@ -78,8 +81,9 @@ public class StudentController {
                     .body(Map.of("error", "Unauthorized"));
             }
             
-            Map<String, Object> myRoomDetails = studentService.getStudentRoom(userId);
-            return ResponseEntity.ok(myRoomDetails);
+            // Private: the URL is shared by every student
+            return ConditionalGet.respond(webRequest, studentService.getStudentRoomEtag(userId), CacheControl.noCache().cachePrivate(),
+                () -> studentService.getStudentRoom(userId));
             
         } catch (RuntimeException e) {
             if (e.getMessage().equals("No room assigned")) {
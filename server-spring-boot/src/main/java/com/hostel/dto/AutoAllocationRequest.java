@@ -0,0 +1,50 @@
+package com.hostel.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Pattern;
+
+/**
+ * Rules for placing every unassigned student in one run. With dry_run (the default) the plan is
+ * computed and returned without writing anything.
+ */
+public class AutoAllocationRequest {
+    
+    @JsonProperty("dry_run")
+    private boolean dryRun = true;
+    
+    // Never put students of different genders in one room
+    @JsonProperty("same_gender")
+    private boolean sameGender = true;
+    
+    // Keep students of the same stream and/or branch in the same rooms
+    @Pattern(regexp = "none|stream|branch|stream_branch", message = "group_by must be one of none, stream, branch, stream_branch")
+    @JsonProperty("group_by")
+    private String groupBy = "stream_branch";
+    
+    // Open rooms on the least filled floor first instead of filling floors bottom up
+    @JsonProperty("balance_floors")
+    private boolean balanceFloors = true;
+    
+    // Only allocate into rooms of this type when set
+    @JsonProperty("room_type")
+    private String roomType;
+    
+    // Constructors
+    public AutoAllocationRequest() {}
+    
+    // Getters and Setters
+    public boolean isDryRun() { return dryRun; }
+    public void setDryRun(boolean dryRun) { this.dryRun = dryRun; }
+    
+    public boolean isSameGender() { return sameGender; }
+    public void setSameGender(boolean sameGender) { this.sameGender = sameGender; }
+    
+    public String getGroupBy() { return groupBy; }
+    public void setGroupBy(String groupBy) { this.groupBy = groupBy == null ? "none" : groupBy; }
+    
+    public boolean isBalanceFloors() { return balanceFloors; }
+    public void setBalanceFloors(boolean balanceFloors) { this.balanceFloors = balanceFloors; }
+    
+    public String getRoomType() { return roomType; }
+    public void setRoomType(String roomType) { this.roomType = roomType; }
+}
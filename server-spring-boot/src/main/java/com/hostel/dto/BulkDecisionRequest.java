@@ -0,0 +1,34 @@
+package com.hostel.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Selects the requests for a bulk approve or reject: either explicit ids, or every pending request
+ * submitted before older_than.
+ */
+public class BulkDecisionRequest {
+    
+    private List<String> ids;
+    
+    @JsonProperty("older_than")
+    private LocalDateTime olderThan;
+    
+    @JsonProperty("warden_comments")
+    private String wardenComments;
+    
+    // Constructors
+    public BulkDecisionRequest() {}
+    
+    // Getters and Setters
+    public List<String> getIds() { return ids; }
+    public void setIds(List<String> ids) { this.ids = ids; }
+    
+    public LocalDateTime getOlderThan() { return olderThan; }
+    public void setOlderThan(LocalDateTime olderThan) { this.olderThan = olderThan; }
+    
+    public String getWardenComments() { return wardenComments; }
+    public void setWardenComments(String wardenComments) { this.wardenComments = wardenComments; }
+}
@@ -0,0 +1,84 @@
+package com.hostel.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * Provisions every floor in [floorFrom, floorTo] with the same room layout. Rooms are numbered
+ * prefix + floor + sequence within the floor, e.g. B-305 for the fifth room on floor 3 of prefix "B-".
+ */
+public class ProvisionRoomsRequest {
+    
+    private String prefix = "";
+    
+    @NotNull(message = "floor_from is required")
+    @Min(value = 0, message = "floor_from must not be negative")
+    @JsonProperty("floor_from")
+    private Integer floorFrom;
+    
+    @NotNull(message = "floor_to is required")
+    @Min(value = 0, message = "floor_to must not be negative")
+    @JsonProperty("floor_to")
+    private Integer floorTo;
+    
+    @NotEmpty(message = "At least one room template is required")
+    @Valid
+    private List<RoomTemplate> templates;
+    
+    public static class RoomTemplate {
+        
+        @NotBlank(message = "room_type is required")
+        @JsonProperty("room_type")
+        private String roomType;
+        
+        @NotNull(message = "capacity is required")
+        @Min(value = 1, message = "capacity must be at least 1")
+        @Max(value = 20, message = "capacity must be at most 20")
+        private Integer capacity;
+        
+        @NotNull(message = "rooms_per_floor is required")
+        @Min(value = 1, message = "rooms_per_floor must be at least 1")
+        @JsonProperty("rooms_per_floor")
+        private Integer roomsPerFloor;
+        
+        public RoomTemplate() {}
+        
+        public RoomTemplate(String roomType, Integer capacity, Integer roomsPerFloor) {
+            this.roomType = roomType;
+            this.capacity = capacity;
+            this.roomsPerFloor = roomsPerFloor;
+        }
+        
+        public String getRoomType() { return roomType; }
+        public void setRoomType(String roomType) { this.roomType = roomType; }
+        
+        public Integer getCapacity() { return capacity; }
+        public void setCapacity(Integer capacity) { this.capacity = capacity; }
+        
+        public Integer getRoomsPerFloor() { return roomsPerFloor; }
+        public void setRoomsPerFloor(Integer roomsPerFloor) { this.roomsPerFloor = roomsPerFloor; }
+    }
+    
+    // Constructors
+    public ProvisionRoomsRequest() {}
+    
+    // Getters and Setters
+    public String getPrefix() { return prefix; }
+    public void setPrefix(String prefix) { this.prefix = prefix == null ? "" : prefix; }
+    
+    public Integer getFloorFrom() { return floorFrom; }
+    public void setFloorFrom(Integer floorFrom) { this.floorFrom = floorFrom; }
+    
+    public Integer getFloorTo() { return floorTo; }
+    public void setFloorTo(Integer floorTo) { this.floorTo = floorTo; }
+    
+    public List<RoomTemplate> getTemplates() { return templates; }
+    public void setTemplates(List<RoomTemplate> templates) { this.templates = templates; }
+}
@@ -0,0 +1,102 @@
+package com.hostel.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One row of the warden's student roster: the student's own fields plus the
+ * room and bed they are assigned to (all null when unassigned).
+ */
+public class StudentRosterEntry {
+    
+    private String id;
+    private String fullName;
+    private String username;
+    private String email;
+    private String phone;
+    private LocalDate dateOfBirth;
+    private String gender;
+    private String aadhaarId;
+    private String rollNo;
+    private String stream;
+    private String branch;
+    private LocalDateTime createdAt;
+    private Boolean firstLogin;
+    private String roomId;
+    private String roomNumber;
+    private Integer bedNumber;
+    
+    // Constructors
+    public StudentRosterEntry() {}
+    
+    public StudentRosterEntry(String id, String fullName, String username, String email, String phone,
+                              LocalDate dateOfBirth, String gender, String aadhaarId, String rollNo,
+                              String stream, String branch, LocalDateTime createdAt, Boolean firstLogin,
+                              String roomId, String roomNumber, Integer bedNumber) {
+        this.id = id;
+        this.fullName = fullName;
+        this.username = username;
+        this.email = email;
+        this.phone = phone;
+        this.dateOfBirth = dateOfBirth;
+        this.gender = gender;
+        this.aadhaarId = aadhaarId;
+        this.rollNo = rollNo;
+        this.stream = stream;
+        this.branch = branch;
+        this.createdAt = createdAt;
+        this.firstLogin = firstLogin;
+        this.roomId = roomId;
+        this.roomNumber = roomNumber;
+        this.bedNumber = bedNumber;
+    }
+    
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    
+    public LocalDate getDateOfBirth() { return dateOfBirth; }
+    public void setDateOfBirth(LocalDate dateOfBirth) { this.dateOfBirth = dateOfBirth; }
+    
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+    
+    public String getAadhaarId() { return aadhaarId; }
+    public void setAadhaarId(String aadhaarId) { this.aadhaarId = aadhaarId; }
+    
+    public String getRollNo() { return rollNo; }
+    public void setRollNo(String rollNo) { this.rollNo = rollNo; }
+    
+    public String getStream() { return stream; }
+    public void setStream(String stream) { this.stream = stream; }
+    
+    public String getBranch() { return branch; }
+    public void setBranch(String branch) { this.branch = branch; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public Boolean getFirstLogin() { return firstLogin; }
+    public void setFirstLogin(Boolean firstLogin) { this.firstLogin = firstLogin; }
+    
+    public String getRoomId() { return roomId; }
+    public void setRoomId(String roomId) { this.roomId = roomId; }
+    
+    public String getRoomNumber() { return roomNumber; }
+    public void setRoomNumber(String roomNumber) { this.roomNumber = roomNumber; }
+    
+    public Integer getBedNumber() { return bedNumber; }
+    public void setBedNumber(Integer bedNumber) { this.bedNumber = bedNumber; }
+}
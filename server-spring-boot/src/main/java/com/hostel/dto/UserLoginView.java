@@ -0,0 +1,11 @@
+package com.hostel.dto;
+
+/**
+ * Closed projection used when only a user's login name is needed.
+ */
+public interface UserLoginView {
+    
+    String getId();
+    
+    String getUsername();
+}
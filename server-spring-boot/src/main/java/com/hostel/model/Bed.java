@@ -2,9 +2,21 @@ package com.hostel.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.time.LocalDateTime;
+
 @Document(collection = "beds")
+@CompoundIndexes({
+    @CompoundIndex(name = "room_bed_number", def = "{'roomId': 1, 'bedNumber': 1}"),
+    @CompoundIndex(name = "room_status", def = "{'roomId': 1, 'status': 1}"),
+    @CompoundIndex(name = "changed_at_id", def = "{'changedAt': 1, '_id': 1}")
+})
 public class Bed {
     
     @Id
@@ -16,11 +28,23 @@ public class Bed {
     @JsonProperty("bed_number")
     private Integer bedNumber;
     
+    // One bed per student; available beds carry no studentId and are left out of the index
     @JsonProperty("student_id")
+    @Indexed(name = "student_id_unique", unique = true, partialFilter = "{ 'studentId': { '$type': 'string' } }")
     private String studentId;
     
     private String status; // "available" or "occupied"
     
+    // Stamped by auditing on save and insert, and with $currentDate by the template updates that
+    // bypass it, so the change feed sees every write
+    @JsonProperty("changed_at")
+    @LastModifiedDate
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    private Long version;
+    
     // Constructors
     public Bed() {}
     
@@ -71,4 +95,20 @@ public class Bed {
     public void setStatus(String status) {
         this.status = status;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
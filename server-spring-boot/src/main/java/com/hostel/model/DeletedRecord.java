@@ -0,0 +1,68 @@
+package com.hostel.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Tombstone left by a delete so change feed clients can drop the record; pruned after the retention period
+@Document(collection = "deleted_records")
+@CompoundIndex(name = "entity_type_deleted_at_id", def = "{'entityType': 1, 'deletedAt': 1, '_id': 1}")
+public class DeletedRecord {
+
+    @Id
+    private String id;
+
+    @JsonProperty("entity_type")
+    private String entityType;
+
+    @JsonProperty("entity_id")
+    private String entityId;
+
+    @JsonProperty("deleted_at")
+    private LocalDateTime deletedAt;
+
+    // Constructors
+    public DeletedRecord() {}
+
+    public DeletedRecord(String entityType, String entityId, LocalDateTime deletedAt) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.deletedAt = deletedAt;
+    }
+
+    // Getters and Setters
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(String entityType) {
+        this.entityType = entityType;
+    }
+
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(String entityId) {
+        this.entityId = entityId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
\ No newline at end of file
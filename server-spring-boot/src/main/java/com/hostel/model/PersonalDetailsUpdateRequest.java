@@ -1,13 +1,22 @@
 package com.hostel.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "personal_details_update_requests")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': -1}"),
+    @CompoundIndex(name = "student_status", def = "{'studentId': 1, 'status': 1}"),
+    @CompoundIndex(name = "changed_at_id", def = "{'changedAt': 1, '_id': 1}")
+})
 public class PersonalDetailsUpdateRequest {
     
     @Id
@@ -64,6 +73,15 @@ public class PersonalDetailsUpdateRequest {
     @JsonProperty("updated_at")
     private LocalDateTime updatedAt;
     
+    // Stamped on every write for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @LastModifiedDate
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    private Long version;
+    
     // Constructors
     public PersonalDetailsUpdateRequest() {
         this.status = "pending";
@@ -137,4 +155,10 @@ public class PersonalDetailsUpdateRequest {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public LocalDateTime getChangedAt() { return changedAt; }
+    public void setChangedAt(LocalDateTime changedAt) { this.changedAt = changedAt; }
 } 
\ No newline at end of file
@@ -2,13 +2,17 @@ package com.hostel.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "rooms")
+@CompoundIndex(name = "changed_at_id", def = "{'changedAt': 1, '_id': 1}")
 public class Room {
     
     @Id
@@ -32,6 +36,15 @@ public class Room {
     @JsonProperty("created_at")
     private LocalDateTime createdAt;
     
+    // Stamped on every write for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @LastModifiedDate
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    private Long version;
+    
     // Constructors
     public Room() {}
     
@@ -99,4 +112,20 @@ public class Room {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
@@ -2,12 +2,21 @@ package com.hostel.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 
 @Document(collection = "room_change_requests")
+@CompoundIndexes({
+    @CompoundIndex(name = "status_id", def = "{'status': 1, '_id': -1}"),
+    @CompoundIndex(name = "student_status", def = "{'studentId': 1, 'status': 1}"),
+    @CompoundIndex(name = "changed_at_id", def = "{'changedAt': 1, '_id': 1}")
+})
 public class RoomChangeRequest {
     
     @Id
@@ -39,6 +48,15 @@ public class RoomChangeRequest {
     @JsonProperty("processed_by")
     private String processedBy;
     
+    // Stamped on every write for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @LastModifiedDate
+    private LocalDateTime changedAt;
+    
+    // Optimistic lock: a save based on a stale read fails instead of overwriting a concurrent change
+    @Version
+    private Long version;
+    
     // Constructors
     public RoomChangeRequest() {
         this.status = "pending";
@@ -134,4 +152,20 @@ public class RoomChangeRequest {
     public void setProcessedBy(String processedBy) {
         this.processedBy = processedBy;
     }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
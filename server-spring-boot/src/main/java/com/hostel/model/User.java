@@ -2,7 +2,10 @@ package com.hostel.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -12,6 +15,12 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Document(collection = "users")
+@CompoundIndexes({
+    @CompoundIndex(name = "role_stream_branch_id", def = "{'role': 1, 'stream': 1, 'branch': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_stream_id", def = "{'role': 1, 'stream': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_branch_id", def = "{'role': 1, 'branch': 1, '_id': 1}"),
+    @CompoundIndex(name = "role_changed_at_id", def = "{'role': 1, 'changedAt': 1, '_id': 1}")
+})
 public class User {
     
     @Id
@@ -84,6 +93,11 @@ public class User {
     @JsonProperty("first_login")
     private Boolean firstLogin = true; // Default to true for new users
     
+    // Stamped on every write for the change feed (see Bed)
+    @JsonProperty("changed_at")
+    @LastModifiedDate
+    private LocalDateTime changedAt;
+    
     // Constructors
     public User() {}
     
@@ -309,4 +323,12 @@ public class User {
     public void setGuardianPhone(String guardianPhone) {
         this.guardianPhone = guardianPhone;
     }
+    
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+    
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.hostel.repository;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+
+/**
+ * Raw aggregation stages for pipelines that the typed Aggregation builders cannot
+ * express (or would validate against the wrong field set).
+ */
+final class AggregationStages {
+    
+    private AggregationStages() {}
+    
+    static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
+}
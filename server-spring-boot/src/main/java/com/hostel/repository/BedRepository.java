@@ -3,11 +3,12 @@ package com.hostel.repository;
 import com.hostel.model.Bed;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BedRepository extends MongoRepository<Bed, String> {
+public interface BedRepository extends MongoRepository<Bed, String>, BedRepositoryCustom {
     
     List<Bed> findByRoomId(String roomId);
     
@@ -15,6 +16,8 @@ public interface BedRepository extends MongoRepository<Bed, String> {
     
     Optional<Bed> findByStudentId(String studentId);
     
+    List<Bed> findByStudentIdIn(Collection<String> studentIds);
+    
     Optional<Bed> findByRoomIdAndBedNumber(String roomId, Integer bedNumber);
     
     long countByRoomIdAndStatus(String roomId, String status);
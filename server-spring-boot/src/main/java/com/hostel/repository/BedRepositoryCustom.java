@@ -0,0 +1,20 @@
+package com.hostel.repository;
+
+import com.hostel.dto.BedStatusCount;
+
+import java.util.List;
+
+public interface BedRepositoryCustom {
+    
+    // Bed counts for every room in one grouped aggregation
+    List<BedStatusCount> countGroupedByRoomIdAndStatus();
+    
+    // Conditional claim: occupies the bed only while it is still available; returns the number of beds changed (0 or 1)
+    int claimBed(String bedId, String studentId);
+    
+    // Conditional release: frees the bed only while the given student still holds it; returns the number of beds changed
+    int releaseBed(String bedId, String studentId);
+    
+    // Conditional claim addressed by room and bed number, saving the lookup of the bed id
+    int claimBedByNumber(String roomId, Integer bedNumber, String studentId);
+}
@@ -0,0 +1,60 @@
+package com.hostel.repository;
+
+import com.hostel.dto.BedStatusCount;
+import com.hostel.model.Bed;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+
+import static com.hostel.repository.AggregationStages.stage;
+
+public class BedRepositoryImpl implements BedRepositoryCustom {
+    
+    private final MongoTemplate mongoTemplate;
+
+    public BedRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<BedStatusCount> countGroupedByRoomIdAndStatus() {
+        Aggregation aggregation = Aggregation.newAggregation(
+            stage("$group", new Document("_id", new Document("roomId", "$roomId").append("status", "$status"))
+                .append("total", new Document("$sum", 1))),
+            stage("$project", new Document("_id", 0)
+                .append("roomId", "$_id.roomId")
+                .append("status", "$_id.status")
+                .append("total", 1))
+        );
+        
+        return mongoTemplate.aggregate(aggregation, "beds", BedStatusCount.class).getMappedResults();
+    }
+
+    @Override
+    public int claimBed(String bedId, String studentId) {
+        // The status predicate and the write are one atomic document operation, so of two
+        // concurrent claims on the same bed exactly one matches
+        Query query = new Query(Criteria.where("_id").is(bedId).and("status").is("available"));
+        Update update = new Update().set("status", "occupied").set("studentId", studentId).inc("version", 1).currentDate("changedAt");
+        return mongoTemplate.findAndModify(query, update, Bed.class) != null ? 1 : 0;
+    }
+
+    @Override
+    public int releaseBed(String bedId, String studentId) {
+        Query query = new Query(Criteria.where("_id").is(bedId).and("studentId").is(studentId));
+        Update update = new Update().set("status", "available").set("studentId", null).inc("version", 1).currentDate("changedAt");
+        return mongoTemplate.findAndModify(query, update, Bed.class) != null ? 1 : 0;
+    }
+
+    @Override
+    public int claimBedByNumber(String roomId, Integer bedNumber, String studentId) {
+        Query query = new Query(Criteria.where("roomId").is(roomId).and("bedNumber").is(bedNumber).and("status").is("available"));
+        Update update = new Update().set("status", "occupied").set("studentId", studentId).inc("version", 1).currentDate("changedAt");
+        return mongoTemplate.findAndModify(query, update, Bed.class) != null ? 1 : 0;
+    }
+}
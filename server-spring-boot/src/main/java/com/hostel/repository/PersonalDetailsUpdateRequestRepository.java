@@ -2,8 +2,10 @@ package com.hostel.repository;
 
 import com.hostel.model.PersonalDetailsUpdateRequest;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,9 +14,21 @@ public interface PersonalDetailsUpdateRequestRepository extends MongoRepository<
     
     List<PersonalDetailsUpdateRequest> findByStatus(String status);
     
+    // Bulk decisions: pending requests submitted before a cutoff, oldest first up to the page size
+    List<PersonalDetailsUpdateRequest> findByStatusAndCreatedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
     List<PersonalDetailsUpdateRequest> findByStudentId(String studentId);
     
     Optional<PersonalDetailsUpdateRequest> findByStudentIdAndStatus(String studentId, String status);
     
     List<PersonalDetailsUpdateRequest> findAllByOrderByCreatedAtDesc();
+    
+    // Keyset pages: newest first, callers pass a first-page Pageable sorted by id descending
+    List<PersonalDetailsUpdateRequest> findAllBy(Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByStatus(String status, Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByIdLessThan(String id, Pageable pageable);
+    
+    List<PersonalDetailsUpdateRequest> findByStatusAndIdLessThan(String status, String id, Pageable pageable);
 } 
\ No newline at end of file
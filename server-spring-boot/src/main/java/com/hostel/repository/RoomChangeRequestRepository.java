@@ -2,7 +2,9 @@ package com.hostel.repository;
 
 import com.hostel.model.RoomChangeRequest;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -12,7 +14,21 @@ public interface RoomChangeRequestRepository extends MongoRepository<RoomChangeR
     
     List<RoomChangeRequest> findByStatus(String status);
     
+    // Bulk decisions: pending requests submitted before a cutoff, oldest first up to the page size
+    List<RoomChangeRequest> findByStatusAndRequestedAtBefore(String status, LocalDateTime cutoff, Pageable pageable);
+    
     List<RoomChangeRequest> findByStudentIdAndStatus(String studentId, String status);
     
     List<RoomChangeRequest> findAllByOrderByRequestedAtDesc();
+    
+    List<RoomChangeRequest> findByStatusOrderByRequestedAtDesc(String status);
+    
+    // Keyset pages: newest first, callers pass a first-page Pageable sorted by id descending
+    List<RoomChangeRequest> findAllBy(Pageable pageable);
+    
+    List<RoomChangeRequest> findByStatus(String status, Pageable pageable);
+    
+    List<RoomChangeRequest> findByIdLessThan(String id, Pageable pageable);
+    
+    List<RoomChangeRequest> findByStatusAndIdLessThan(String status, String id, Pageable pageable);
 } 
\ No newline at end of file
@@ -3,6 +3,8 @@ package com.hostel.repository;
 import com.hostel.model.Room;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -11,4 +13,6 @@ public interface RoomRepository extends MongoRepository<Room, String> {
     Optional<Room> findByRoomNumber(String roomNumber);
     
     boolean existsByRoomNumber(String roomNumber);
+    
+    List<Room> findByRoomNumberIn(Collection<String> roomNumbers);
 } 
\ No newline at end of file
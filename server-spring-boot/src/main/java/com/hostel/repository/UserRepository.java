@@ -1,13 +1,17 @@
 package com.hostel.repository;
 
+import com.hostel.dto.AllocationCandidateView;
+import com.hostel.dto.UserNameView;
+import com.hostel.dto.UserLoginView;
 import com.hostel.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
-public interface UserRepository extends MongoRepository<User, String> {
+public interface UserRepository extends MongoRepository<User, String>, UserRepositoryCustom {
     
     Optional<User> findByUsername(String username);
     
@@ -28,6 +32,18 @@ public interface UserRepository extends MongoRepository<User, String> {
     
     boolean existsByPhone(String phone);
     
+    // Set-based uniqueness check for bulk imports: every user clashing on any of the unique fields
+    List<User> findByUsernameInOrAadhaarIdInOrRollNoInOrPhoneIn(Collection<String> usernames, Collection<String> aadhaarIds,
+                                                                Collection<String> rollNos, Collection<String> phones);
+    
     // Count methods for statistics
     long countByRole(String role);
+    
+    // Batch lookup of display names (id + full_name only)
+    List<UserNameView> findByIdIn(Collection<String> ids);
+    
+    List<UserLoginView> findAllProjectedBy();
+    
+    // Allocation inputs for every user of a role, without loading full profiles
+    List<AllocationCandidateView> findAllProjectedByRole(String role);
 } 
\ No newline at end of file
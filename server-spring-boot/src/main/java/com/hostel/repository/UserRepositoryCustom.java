@@ -0,0 +1,18 @@
+package com.hostel.repository;
+
+import com.hostel.dto.StudentRosterEntry;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface UserRepositoryCustom {
+    
+    // Student roster with room assignment, resolved in a single aggregation
+    List<StudentRosterEntry> findStudentRoster();
+    
+    // Filtered roster ordered by id; null arguments are not applied, after/limit drive keyset paging
+    List<StudentRosterEntry> findStudentRosterPage(String stream, String branch, Boolean assigned, String after, Integer limit);
+    
+    // Full roster pushed document by document from a server-side cursor, without materialising the result
+    void streamStudentRoster(Consumer<StudentRosterEntry> consumer);
+}
@@ -0,0 +1,136 @@
+package com.hostel.repository;
+
+import com.hostel.dto.StudentRosterEntry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static com.hostel.repository.AggregationStages.stage;
+
+public class UserRepositoryImpl implements UserRepositoryCustom {
+    
+    private static final int STREAM_BATCH_SIZE = 500;
+    
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<StudentRosterEntry> findStudentRoster() {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        pipeline.add(stage("$match", new Document("role", "student")));
+        pipeline.addAll(rosterLookupStages());
+        pipeline.add(stage("$sort", new Document("_id", 1)));
+        
+        return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), "users", StudentRosterEntry.class)
+            .getMappedResults();
+    }
+    
+    @Override
+    public List<StudentRosterEntry> findStudentRosterPage(String stream, String branch, Boolean assigned, String after, Integer limit) {
+        Document match = new Document("role", "student");
+        if (stream != null) {
+            match.append("stream", stream);
+        }
+        if (branch != null) {
+            match.append("branch", branch);
+        }
+        if (after != null) {
+            match.append("_id", new Document("$gt", new ObjectId(after)));
+        }
+        
+        // Sorting on the indexed _id and filtering before the lookups lets the pipeline stop once the
+        // page is full, so only the returned students are joined with their bed and room
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        pipeline.add(stage("$match", match));
+        pipeline.add(stage("$sort", new Document("_id", 1)));
+        if (assigned != null) {
+            pipeline.add(heldBedProbe());
+            pipeline.add(stage("$match", new Document("heldBed", assigned ? new Document("$ne", List.of()) : List.of())));
+        }
+        if (limit != null) {
+            pipeline.add(Aggregation.limit(limit));
+        }
+        pipeline.addAll(rosterLookupStages());
+        
+        return mongoTemplate.aggregate(Aggregation.newAggregation(pipeline), "users", StudentRosterEntry.class)
+            .getMappedResults();
+    }
+    
+    @Override
+    public void streamStudentRoster(Consumer<StudentRosterEntry> consumer) {
+        List<AggregationOperation> pipeline = new ArrayList<>();
+        pipeline.add(stage("$match", new Document("role", "student")));
+        pipeline.add(stage("$sort", new Document("_id", 1)));
+        pipeline.addAll(rosterLookupStages());
+        Aggregation aggregation = Aggregation.newAggregation(pipeline)
+            .withOptions(AggregationOptions.builder().cursorBatchSize(STREAM_BATCH_SIZE).build());
+        
+        try (Stream<StudentRosterEntry> roster = mongoTemplate.aggregateStream(aggregation, "users", StudentRosterEntry.class)) {
+            roster.forEach(consumer);
+        }
+    }
+    
+    // At most one bed id per student, read from the unique student index on beds; the $type condition
+    // matches the index's partial filter so the planner can use it
+    private static AggregationOperation heldBedProbe() {
+        return stage("$lookup", new Document("from", "beds")
+            .append("let", new Document("studentKey", new Document("$toString", "$_id")))
+            .append("pipeline", List.of(
+                new Document("$match", new Document("studentId", new Document("$type", "string"))
+                    .append("$expr", new Document("$eq", List.of("$studentId", "$$studentKey")))),
+                new Document("$limit", 1),
+                new Document("$project", new Document("_id", 1))))
+            .append("as", "heldBed"));
+    }
+    
+    /**
+     * Joins each student with the bed they occupy and that bed's room, then projects the
+     * roster shape. Beds store the student and room ids as plain strings while the
+     * referenced documents use ObjectId keys, hence the conversions before each $lookup.
+     */
+    static List<AggregationOperation> rosterLookupStages() {
+        List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(stage("$addFields", new Document("studentKey", new Document("$toString", "$_id"))));
+        stages.add(stage("$lookup", new Document("from", "beds")
+            .append("localField", "studentKey")
+            .append("foreignField", "studentId")
+            .append("as", "bed")));
+        stages.add(stage("$unwind", new Document("path", "$bed").append("preserveNullAndEmptyArrays", true)));
+        stages.add(stage("$addFields", new Document("roomKey", new Document("$convert", new Document("input", "$bed.roomId")
+            .append("to", "objectId")
+            .append("onError", "$bed.roomId")
+            .append("onNull", null)))));
+        stages.add(stage("$lookup", new Document("from", "rooms")
+            .append("localField", "roomKey")
+            .append("foreignField", "_id")
+            .append("as", "room")));
+        stages.add(stage("$unwind", new Document("path", "$room").append("preserveNullAndEmptyArrays", true)));
+        stages.add(stage("$project", new Document("fullName", 1)
+            .append("username", 1)
+            .append("email", 1)
+            .append("phone", 1)
+            .append("dateOfBirth", 1)
+            .append("gender", 1)
+            .append("aadhaarId", 1)
+            .append("rollNo", 1)
+            .append("stream", 1)
+            .append("branch", 1)
+            .append("createdAt", 1)
+            .append("firstLogin", 1)
+            .append("roomId", new Document("$toString", "$room._id"))
+            .append("roomNumber", "$room.roomNumber")
+            .append("bedNumber", "$bed.bedNumber")));
+        return stages;
+    }
+}
@@ -39,16 +39,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                role = jwtUtil.extractRole(jwt);
-                userId = jwtUtil.extractUserId(jwt);
+                // One signature check per token lifetime; it also rejects expired tokens
+                JwtUtil.VerifiedToken verified = jwtUtil.verify(jwt);
+                username = verified.getUsername();
+                role = verified.getRole();
+                userId = verified.getUserId();
             } catch (Exception e) {
                 logger.warn("JWT token validation failed: " + e.getMessage());
             }
         }
         
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtil.validateToken(jwt, username)) {
+            if (role != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         username, null, Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())));
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
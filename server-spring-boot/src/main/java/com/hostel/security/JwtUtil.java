@@ -1,33 +1,92 @@
 package com.hostel.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.hostel.config.JwtProperties;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
+/**
+ * Issues and verifies the HMAC-signed JWTs. The signing key and parser are built once, and a token
+ * is parsed and its signature checked once per lifetime: the verified claims are kept in a bounded
+ * LRU keyed by the token's SHA-256, each entry evicted when its token expires.
+ */
 @Component
 public class JwtUtil {
     
     @Autowired
     private JwtProperties jwtProperties;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    private SecretKey signingKey;
+    
+    private JwtParser parser;
+    
+    private Cache<String, VerifiedToken> verifiedTokens;
+    
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes());
+        parser = Jwts.parser().verifyWith(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getVerifiedCacheSize())
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken token, long currentTime) {
+                        if (token.getExpiresAt() == null) {
+                            return TimeUnit.MILLISECONDS.toNanos(jwtProperties.getExpiration());
+                        }
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, token.getExpiresAt().getTime() - System.currentTimeMillis()));
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken token, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt_verified_tokens");
+    }
+    
+    /**
+     * Verifies the token's signature and expiry and returns its claims, parsing it only on the first
+     * call. Throws a JwtException for a token that is invalid or expired.
+     */
+    public VerifiedToken verify(String token) {
+        return verifiedTokens.get(hash(token), key -> new VerifiedToken(extractAllClaims(token)));
     }
     
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verify(token).getUsername();
     }
     
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verify(token).getExpiresAt();
     }
     
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -36,15 +95,17 @@ public class JwtUtil {
     }
     
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
     
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Tokens are bearer credentials, so the cache holds their digests rather than the tokens
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
     
     public String generateToken(String username, String role, String userId) {
@@ -60,20 +121,54 @@ public class JwtUtil {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpiration()))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
     public Boolean validateToken(String token, String username) {
+        // verify() rejects expired tokens, and cached entries are evicted at expiry
         final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        return extractedUsername.equals(username);
     }
     
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verify(token).getRole();
     }
     
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return verify(token).getUserId();
+    }
+    
+    /**
+     * The claims the filter needs from a token whose signature has been checked.
+     */
+    public static final class VerifiedToken {
+        private final String username;
+        private final String role;
+        private final String userId;
+        private final Date expiresAt;
+        
+        VerifiedToken(Claims claims) {
+            this.username = claims.getSubject();
+            this.role = claims.get("role", String.class);
+            this.userId = claims.get("userId", String.class);
+            this.expiresAt = claims.getExpiration();
+        }
+        
+        public String getUsername() {
+            return username;
+        }
+        
+        public String getRole() {
+            return role;
+        }
+        
+        public String getUserId() {
+            return userId;
+        }
+        
+        public Date getExpiresAt() {
+            return expiresAt;
+        }
     }
 } 
\ No newline at end of file
@@ -0,0 +1,339 @@
+package com.hostel.service;
+
+import com.hostel.model.Bed;
+import com.hostel.model.Room;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomChangeRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Moves students between beds. A move frees the old bed, claims the new one and shifts both rooms'
+ * occupancy counters with conditional updates. With app.mongodb.transactions.enabled the steps run
+ * in one multi-document transaction; on a standalone server a failed claim is compensated by
+ * handing the old bed back and reopening the request.
+ */
+@Service
+public class BedAllocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BedAllocationService.class);
+
+    private final BedRepository bedRepository;
+
+    private final BedAvailabilityIndex bedAvailabilityIndex;
+
+    private final RoomChangeRequestRepository roomChangeRequestRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectProvider<MongoTransactionManager> transactionManagerProvider;
+
+    public BedAllocationService(BedRepository bedRepository, BedAvailabilityIndex bedAvailabilityIndex, RoomChangeRequestRepository roomChangeRequestRepository, MongoTemplate mongoTemplate,
+                                ObjectProvider<MongoTransactionManager> transactionManagerProvider) {
+        this.bedRepository = bedRepository;
+        this.bedAvailabilityIndex = bedAvailabilityIndex;
+        this.roomChangeRequestRepository = roomChangeRequestRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionManagerProvider = transactionManagerProvider;
+    }
+
+    public void approveRoomChange(String requestId, String processedBy) {
+        RoomChangeRequest request = roomChangeRequestRepository.findById(requestId)
+            .orElseThrow(() -> new RuntimeException("Room change request not found"));
+        approveRoomChange(request, bedRepository.findByStudentId(request.getStudentId()), processedBy);
+    }
+
+    // Approves a request whose student's bed the caller has already loaded. The conditional close,
+    // release and claim all recheck that state, so a stale request or bed fails the move instead of
+    // overwriting a concurrent change
+    public void approveRoomChange(RoomChangeRequest request, Optional<Bed> currentBed, String processedBy) {
+        if (!"pending".equals(request.getStatus())) {
+            throw new RuntimeException("Request has already been processed");
+        }
+        
+        String requestId = request.getId();
+        MongoTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        if (transactionManager != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                closePending(requestId, processedBy);
+                applyMove(request.getStudentId(), currentBed.orElse(null), request.getRequestedRoomId(), request.getRequestedBedNumber(), false);
+            });
+        } else {
+            closePending(requestId, processedBy);
+            try {
+                applyMove(request.getStudentId(), currentBed.orElse(null), request.getRequestedRoomId(), request.getRequestedBedNumber(), true);
+            } catch (RuntimeException e) {
+                reopen(requestId);
+                throw e;
+            }
+        }
+        logger.info("Approved room change request {}: student {} moved to room {} bed {}",
+            requestId, request.getStudentId(), request.getRequestedRoomId(), request.getRequestedBedNumber());
+    }
+
+    public void moveStudent(String studentId, String toRoomId, Integer toBedNumber) {
+        Bed currentBed = bedRepository.findByStudentId(studentId).orElse(null);
+        MongoTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        if (transactionManager != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> applyMove(studentId, currentBed, toRoomId, toBedNumber, false));
+        } else {
+            applyMove(studentId, currentBed, toRoomId, toBedNumber, true);
+        }
+    }
+
+    private void applyMove(String studentId, Bed currentBed, String toRoomId, Integer toBedNumber, boolean compensate) {
+        
+        // Free the old bed first; the unique student index allows one bed per student. A release that
+        // changes nothing means the bed was freed concurrently, and nothing has been written yet
+        if (currentBed != null && bedRepository.releaseBed(currentBed.getId(), studentId) == 0) {
+            throw new OptimisticLockingFailureException("Student " + studentId + " no longer holds bed " + currentBed.getId());
+        }
+        
+        try {
+            if (!claim(toRoomId, toBedNumber, studentId)) {
+                throw new RuntimeException("Requested bed is no longer available");
+            }
+        } catch (RuntimeException e) {
+            // Covers a lost race for the bed and a unique-index conflict alike
+            if (compensate && currentBed != null) {
+                restoreBed(currentBed, studentId);
+            }
+            throw e;
+        }
+        
+        adjustOccupancy(currentBed != null ? currentBed.getRoomId() : null, toRoomId);
+        if (currentBed != null) {
+            bedAvailabilityIndex.bedReleased(currentBed.getRoomId(), currentBed.getBedNumber());
+        }
+        bedAvailabilityIndex.bedClaimed(toRoomId, toBedNumber);
+    }
+
+    private void restoreBed(Bed bed, String studentId) {
+        try {
+            if (!claim(bed.getRoomId(), bed.getBedNumber(), studentId)) {
+                logger.error("Could not restore bed {} to student {} after a failed move", bed.getId(), studentId);
+            }
+        } catch (RuntimeException e) {
+            logger.error("Could not restore bed {} to student {} after a failed move", bed.getId(), studentId, e);
+        }
+    }
+
+    private boolean claim(String roomId, Integer bedNumber, String studentId) {
+        try {
+            return bedRepository.claimBedByNumber(roomId, bedNumber, studentId) == 1;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Student is already assigned to a room");
+        }
+    }
+
+    // Both rooms' counters in a single bulk round trip
+    private void adjustOccupancy(String fromRoomId, String toRoomId) {
+        if (Objects.equals(fromRoomId, toRoomId)) {
+            return;
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+        if (fromRoomId != null) {
+            operations.updateOne(Query.query(Criteria.where("_id").is(fromRoomId)), new Update().inc("occupiedBeds", -1).inc("version", 1).currentDate("changedAt"));
+        }
+        operations.updateOne(Query.query(Criteria.where("_id").is(toRoomId)), new Update().inc("occupiedBeds", 1).inc("version", 1).currentDate("changedAt"));
+        operations.execute();
+    }
+
+    // Conditional close: only a pending request changes, so of two concurrent decisions exactly one proceeds
+    private void closePending(String requestId, String processedBy) {
+        closePending(requestId, processedBy, () -> new RuntimeException("Request has already been processed"));
+    }
+
+    private void closePending(String requestId, String processedBy, Supplier<RuntimeException> alreadyProcessed) {
+        Query query = Query.query(Criteria.where("_id").is(requestId).and("status").is("pending"));
+        Update update = new Update()
+            .set("status", "approved")
+            .set("processedAt", LocalDateTime.now())
+            .set("processedBy", processedBy)
+            .inc("version", 1)
+            .currentDate("changedAt");
+        if (mongoTemplate.updateFirst(query, update, RoomChangeRequest.class).getModifiedCount() == 0) {
+            throw alreadyProcessed.get();
+        }
+    }
+
+    private void reopen(String requestId) {
+        Query query = Query.query(Criteria.where("_id").is(requestId).and("status").is("approved"));
+        Update update = new Update().set("status", "pending").unset("processedAt").unset("processedBy").inc("version", 1).currentDate("changedAt");
+        mongoTemplate.updateFirst(query, update, RoomChangeRequest.class);
+    }
+
+    // First bed for a student: the conditional claim and the room's occupancy counter, in one transaction when available
+    public void assignBed(String studentId, String roomId, Integer bedNumber) {
+        inTransaction(() -> {
+            if (!claim(roomId, bedNumber, studentId)) {
+                throw new RuntimeException("Bed not available");
+            }
+            incrementOccupancy(roomId, 1);
+        });
+        bedAvailabilityIndex.bedClaimed(roomId, bedNumber);
+    }
+
+    // Frees whatever bed the student holds and decrements its room's counter
+    public Optional<Bed> releaseStudentBed(String studentId) {
+        Optional<Bed> bed = bedRepository.findByStudentId(studentId);
+        if (bed.isEmpty()) {
+            return Optional.empty();
+        }
+        boolean released = Boolean.TRUE.equals(inTransaction(() -> {
+            if (bedRepository.releaseBed(bed.get().getId(), studentId) == 0) {
+                return false;
+            }
+            incrementOccupancy(bed.get().getRoomId(), -1);
+            return true;
+        }));
+        if (!released) {
+            return Optional.empty();
+        }
+        bedAvailabilityIndex.bedReleased(bed.get().getRoomId(), bed.get().getBedNumber());
+        return bed;
+    }
+
+    private void incrementOccupancy(String roomId, int delta) {
+        mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(roomId)), new Update().inc("occupiedBeds", delta).inc("version", 1).currentDate("changedAt"), Room.class);
+    }
+
+    private void inTransaction(Runnable work) {
+        inTransaction(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        MongoTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        return transactionManager == null ? work.get() : new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    // Approves a set of room changes that only work together, such as a swap cycle or a chain ending
+    // in a free bed. Every mover leaves their bed before anyone claims one, so beds can change hands in
+    // a circle. Stale state fails the set with an optimistic-lock failure: inside a transaction it rolls
+    // back, on a standalone server the steps already taken are undone in reverse.
+    public void applyMoves(List<Move> moves, String processedBy) {
+        MongoTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        if (transactionManager != null) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> applyLinkedMoves(moves, processedBy, null));
+        } else {
+            List<Runnable> undo = new ArrayList<>();
+            try {
+                applyLinkedMoves(moves, processedBy, undo);
+            } catch (RuntimeException e) {
+                for (int i = undo.size() - 1; i >= 0; i--) {
+                    undo.get(i).run();
+                }
+                throw e;
+            }
+        }
+        
+        // Releases are registered before claims so a bed handed on within the set ends up occupied
+        moves.stream().filter(move -> move.fromBedId != null)
+            .forEach(move -> bedAvailabilityIndex.bedReleased(move.fromRoomId, move.fromBedNumber));
+        moves.forEach(move -> bedAvailabilityIndex.bedClaimed(move.toRoomId, move.toBedNumber));
+        logger.info("Applied {} linked room changes", moves.size());
+    }
+
+    private void applyLinkedMoves(List<Move> moves, String processedBy, List<Runnable> undo) {
+        Map<String, Integer> roomDeltas = new TreeMap<>();
+        for (Move move : moves) {
+            closePending(move.requestId, processedBy, () -> new OptimisticLockingFailureException("Room change request " + move.requestId + " was processed concurrently"));
+            if (undo != null) {
+                undo.add(() -> reopen(move.requestId));
+            }
+            if (move.fromBedId != null) {
+                if (bedRepository.releaseBed(move.fromBedId, move.studentId) == 0) {
+                    throw new OptimisticLockingFailureException("Student " + move.studentId + " no longer holds bed " + move.fromBedId);
+                }
+                if (undo != null) {
+                    undo.add(() -> bedRepository.claimBed(move.fromBedId, move.studentId));
+                }
+                roomDeltas.merge(move.fromRoomId, -1, Integer::sum);
+            }
+        }
+        for (Move move : moves) {
+            try {
+                if (bedRepository.claimBedByNumber(move.toRoomId, move.toBedNumber, move.studentId) == 0) {
+                    throw new OptimisticLockingFailureException("Bed " + move.toBedNumber + " in room " + move.toRoomId + " is no longer available");
+                }
+            } catch (DataIntegrityViolationException e) {
+                throw new OptimisticLockingFailureException("Student " + move.studentId + " was assigned a bed concurrently", e);
+            }
+            if (undo != null) {
+                undo.add(() -> mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("roomId").is(move.toRoomId).and("bedNumber").is(move.toBedNumber).and("studentId").is(move.studentId)),
+                    new Update().set("status", "available").set("studentId", null).inc("version", 1).currentDate("changedAt"), Bed.class));
+            }
+            roomDeltas.merge(move.toRoomId, 1, Integer::sum);
+        }
+        
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Room.class);
+        roomDeltas.forEach((roomId, delta) -> {
+            if (delta != 0) {
+                operations.updateOne(Query.query(Criteria.where("_id").is(roomId)), new Update().inc("occupiedBeds", delta).inc("version", 1).currentDate("changedAt"));
+            }
+        });
+        if (roomDeltas.values().stream().anyMatch(delta -> delta != 0)) {
+            operations.execute();
+        }
+    }
+
+    /**
+     * One approved room change inside a linked set; the from fields are null for a student without a bed.
+     */
+    public static final class Move {
+        private final String requestId;
+        private final String studentId;
+        private final String fromBedId;
+        private final String fromRoomId;
+        private final Integer fromBedNumber;
+        private final String toRoomId;
+        private final Integer toBedNumber;
+
+        public Move(String requestId, String studentId, Bed fromBed, String toRoomId, Integer toBedNumber) {
+            this.requestId = requestId;
+            this.studentId = studentId;
+            this.fromBedId = fromBed != null ? fromBed.getId() : null;
+            this.fromRoomId = fromBed != null ? fromBed.getRoomId() : null;
+            this.fromBedNumber = fromBed != null ? fromBed.getBedNumber() : null;
+            this.toRoomId = toRoomId;
+            this.toBedNumber = toBedNumber;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("request_id", requestId);
+            entry.put("student_id", studentId);
+            entry.put("from_room_id", fromRoomId);
+            entry.put("from_bed_number", fromBedNumber);
+            entry.put("to_room_id", toRoomId);
+            entry.put("to_bed_number", toBedNumber);
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.hostel.service;
+
+import com.hostel.dto.BulkDecisionRequest;
+import com.hostel.model.Bed;
+import com.hostel.model.PersonalDetailsUpdateRequest;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.model.User;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.PersonalDetailsUpdateRequestRepository;
+import com.hostel.repository.RoomChangeRequestRepository;
+import com.hostel.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.MongoTransactionManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Approves or rejects many requests in one call, selected by id or as every pending request older
+ * than a cutoff. Requests and students are loaded with one query each and the decisions go out as
+ * one unordered bulk of version-conditional updates, so a request changed concurrently is reported
+ * instead of overwritten; with app.mongodb.transactions.enabled the whole call is one transaction.
+ * Room change approvals load requests, students and their current beds up front too, but each bed
+ * move runs on its own: two requests in a call may want the same bed, and a bed lost to either of
+ * them or to a concurrent assignment fails only that request instead of undoing every move. Every id
+ * gets its own outcome.
+ */
+@Service
+public class BulkDecisionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDecisionService.class);
+
+    private final RoomChangeRequestRepository roomChangeRequestRepository;
+
+    private final PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository;
+
+    private final UserRepository userRepository;
+
+    private final BedRepository bedRepository;
+
+    private final BedAllocationService bedAllocationService;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final ObjectProvider<MongoTransactionManager> transactionManagerProvider;
+
+    private final int maxRequests;
+
+    public BulkDecisionService(RoomChangeRequestRepository roomChangeRequestRepository, PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository,
+                               UserRepository userRepository, BedRepository bedRepository, BedAllocationService bedAllocationService, MongoTemplate mongoTemplate,
+                               ObjectProvider<MongoTransactionManager> transactionManagerProvider,
+                               @Value("${app.bulk-decisions.max-requests:1000}") int maxRequests) {
+        this.roomChangeRequestRepository = roomChangeRequestRepository;
+        this.personalDetailsUpdateRequestRepository = personalDetailsUpdateRequestRepository;
+        this.userRepository = userRepository;
+        this.bedRepository = bedRepository;
+        this.bedAllocationService = bedAllocationService;
+        this.mongoTemplate = mongoTemplate;
+        this.transactionManagerProvider = transactionManagerProvider;
+        this.maxRequests = maxRequests;
+    }
+
+    public Map<String, Object> decideRoomChangeRequests(BulkDecisionRequest decision, boolean approve) {
+        long start = System.currentTimeMillis();
+        List<Map<String, Object>> results = new ArrayList<>();
+        if (approve) {
+            Map<String, RoomChangeRequest> requests = selectRoomChangeRequests(decision);
+            List<String> studentIds = requests.values().stream()
+                .filter(request -> request != null && "pending".equals(request.getStatus()))
+                .map(RoomChangeRequest::getStudentId)
+                .distinct()
+                .collect(Collectors.toList());
+            Set<String> students = new HashSet<>();
+            userRepository.findAllById(studentIds).forEach(student -> students.add(student.getId()));
+            Map<String, Bed> currentBeds = new HashMap<>();
+            bedRepository.findByStudentIdIn(studentIds).forEach(bed -> currentBeds.put(bed.getStudentId(), bed));
+
+            for (String id : requests.keySet()) {
+                RoomChangeRequest request = requests.get(id);
+                if (request == null || !"pending".equals(request.getStatus())) {
+                    results.add(skipped(id, request, "Room change request not found"));
+                    continue;
+                }
+                if (!students.contains(request.getStudentId())) {
+                    results.add(outcome(id, "failed", "Student not found"));
+                    continue;
+                }
+                try {
+                    bedAllocationService.approveRoomChange(request, Optional.ofNullable(currentBeds.get(request.getStudentId())), "warden");
+                    results.add(outcome(id, "approved", null));
+                } catch (RuntimeException e) {
+                    results.add(outcome(id, "failed", e.getMessage()));
+                }
+            }
+        } else {
+            results = inTransaction(() -> {
+                Map<String, RoomChangeRequest> requests = selectRoomChangeRequests(decision);
+                Map<String, Long> pending = new LinkedHashMap<>();
+                requests.forEach((id, request) -> {
+                    if (request != null && "pending".equals(request.getStatus())) {
+                        pending.put(id, request.getVersion());
+                    }
+                });
+                LocalDateTime now = LocalDateTime.now();
+                Set<String> closed = close(RoomChangeRequest.class, pending,
+                    () -> new Update().set("status", "rejected").set("processedAt", now).set("processedBy", "warden"), "rejected",
+                    ids -> roomChangeRequestRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(RoomChangeRequest::getId, request -> new Closed(request.getStatus(), request.getVersion()))));
+                return outcomes(requests, closed, "rejected", "Room change request not found");
+            });
+        }
+        return report("room change", approve, results, start);
+    }
+
+    public Map<String, Object> decidePersonalDetailsRequests(BulkDecisionRequest decision, boolean approve) {
+        long start = System.currentTimeMillis();
+        String decided = approve ? "approved" : "rejected";
+        List<Map<String, Object>> results = inTransaction(() -> {
+            Map<String, PersonalDetailsUpdateRequest> requests = selectPersonalDetailsRequests(decision);
+            Map<String, User> students = new HashMap<>();
+            if (approve) {
+                List<String> studentIds = requests.values().stream()
+                    .filter(request -> request != null && "pending".equals(request.getStatus()))
+                    .map(PersonalDetailsUpdateRequest::getStudentId)
+                    .distinct()
+                    .collect(Collectors.toList());
+                userRepository.findAllById(studentIds).forEach(student -> students.put(student.getId(), student));
+            }
+
+            Map<String, Long> pending = new LinkedHashMap<>();
+            Set<String> missingStudents = new HashSet<>();
+            requests.forEach((id, request) -> {
+                if (request == null || !"pending".equals(request.getStatus())) {
+                    return;
+                }
+                if (approve && !students.containsKey(request.getStudentId())) {
+                    missingStudents.add(id);
+                } else {
+                    pending.put(id, request.getVersion());
+                }
+            });
+
+            LocalDateTime now = LocalDateTime.now();
+            Set<String> closed = close(PersonalDetailsUpdateRequest.class, pending, () -> new Update().set("status", decided).set("processedAt", now)
+                .set("processedBy", "warden").set("wardenComments", decision.getWardenComments()), decided,
+                ids -> personalDetailsUpdateRequestRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(PersonalDetailsUpdateRequest::getId, request -> new Closed(request.getStatus(), request.getVersion()))));
+
+            // Only requests this call closed touch the student, in one more bulk round trip
+            if (approve && !closed.isEmpty()) {
+                BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+                for (String id : closed) {
+                    PersonalDetailsUpdateRequest request = requests.get(id);
+                    User student = students.get(request.getStudentId());
+                    StudentService.copyPersonalDetails(request, student);
+                    operations.updateOne(Query.query(Criteria.where("_id").is(student.getId())), new Update()
+                        .set("phone", student.getPhone())
+                        .set("addressLine1", student.getAddressLine1())
+                        .set("addressLine2", student.getAddressLine2())
+                        .set("city", student.getCity())
+                        .set("state", student.getState())
+                        .set("postalCode", student.getPostalCode())
+                        .set("guardianName", student.getGuardianName())
+                        .set("guardianPhone", student.getGuardianPhone())
+                        .set("guardianAddress", student.getGuardianAddress())
+                        .currentDate("changedAt"));
+                }
+                operations.execute();
+            }
+
+            List<Map<String, Object>> outcomes = outcomes(requests, closed, decided, "Personal details update request not found");
+            outcomes.replaceAll(entry -> missingStudents.contains(entry.get("request_id")) ? outcome(entry.get("request_id"), "failed", "Student not found") : entry);
+            return outcomes;
+        });
+        return report("personal details", approve, results, start);
+    }
+
+    // Version-conditional close of every pending request in one bulk; returns the ids this call closed
+    private Set<String> close(Class<?> type, Map<String, Long> pending, Supplier<Update> update, String status,
+                              Function<Set<String>, Map<String, Closed>> reload) {
+        if (pending.isEmpty()) {
+            return Set.of();
+        }
+        BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        pending.forEach((id, version) -> operations.updateOne(
+            Query.query(Criteria.where("_id").is(id).and("version").is(version)), update.get().inc("version", 1).currentDate("changedAt")));
+        if (operations.execute().getModifiedCount() == pending.size()) {
+            return pending.keySet();
+        }
+
+        // Some lost a race; the bulk result only has counts, so read back which ones moved on by exactly our update
+        Set<String> closed = new LinkedHashSet<>();
+        Map<String, Closed> current = reload.apply(pending.keySet());
+        pending.forEach((id, version) -> {
+            Closed now = current.get(id);
+            if (now != null && status.equals(now.status) && Objects.equals(now.version, version == null ? null : version + 1)) {
+                closed.add(id);
+            }
+        });
+        return closed;
+    }
+
+    private <T> List<Map<String, Object>> outcomes(Map<String, T> requests, Set<String> closed, String decided, String notFound) {
+        List<Map<String, Object>> outcomes = new ArrayList<>();
+        requests.forEach((id, request) -> outcomes.add(closed.contains(id) ? outcome(id, decided, null) : skipped(id, request, notFound)));
+        return outcomes;
+    }
+
+    private List<Map<String, Object>> inTransaction(Supplier<List<Map<String, Object>>> work) {
+        MongoTransactionManager transactionManager = transactionManagerProvider.getIfAvailable();
+        return transactionManager == null ? work.get() : new TransactionTemplate(transactionManager).execute(status -> work.get());
+    }
+
+    // Requested ids in the caller's order, a missing request mapped to null
+    private Map<String, RoomChangeRequest> selectRoomChangeRequests(BulkDecisionRequest decision) {
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            return byRequestedId(decision, roomChangeRequestRepository.findAllById(checkedIds(decision)), RoomChangeRequest::getId);
+        }
+        return byRequestedId(decision, roomChangeRequestRepository.findByStatusAndRequestedAtBefore("pending", checkedCutoff(decision),
+            PageRequest.of(0, maxRequests, Sort.by("requestedAt", "id"))), RoomChangeRequest::getId);
+    }
+
+    private Map<String, PersonalDetailsUpdateRequest> selectPersonalDetailsRequests(BulkDecisionRequest decision) {
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            return byRequestedId(decision, personalDetailsUpdateRequestRepository.findAllById(checkedIds(decision)), PersonalDetailsUpdateRequest::getId);
+        }
+        return byRequestedId(decision, personalDetailsUpdateRequestRepository.findByStatusAndCreatedAtBefore("pending", checkedCutoff(decision),
+            PageRequest.of(0, maxRequests, Sort.by("createdAt", "id"))), PersonalDetailsUpdateRequest::getId);
+    }
+
+    private <T> Map<String, T> byRequestedId(BulkDecisionRequest decision, Iterable<T> found, Function<T, String> idOf) {
+        Map<String, T> byId = new LinkedHashMap<>();
+        if (decision.getIds() != null && !decision.getIds().isEmpty()) {
+            decision.getIds().forEach(id -> byId.put(id, null));
+        }
+        found.forEach(request -> byId.put(idOf.apply(request), request));
+        return byId;
+    }
+
+    private List<String> checkedIds(BulkDecisionRequest decision) {
+        List<String> ids = new ArrayList<>(new LinkedHashSet<>(decision.getIds()));
+        if (ids.size() > maxRequests) {
+            throw new RuntimeException("Bulk decisions are limited to " + maxRequests + " requests per call");
+        }
+        return ids;
+    }
+
+    private static LocalDateTime checkedCutoff(BulkDecisionRequest decision) {
+        if (decision.getOlderThan() == null) {
+            throw new RuntimeException("Provide ids or older_than");
+        }
+        return decision.getOlderThan();
+    }
+
+    private static Map<String, Object> skipped(Object id, Object request, String notFound) {
+        return request == null ? outcome(id, "not_found", notFound) : outcome(id, "skipped", "Request has already been processed");
+    }
+
+    private static Map<String, Object> outcome(Object id, String outcome, String error) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("request_id", id);
+        entry.put("outcome", outcome);
+        if (error != null) {
+            entry.put("error", error);
+        }
+        return entry;
+    }
+
+    private static Map<String, Object> report(String kind, boolean approve, List<Map<String, Object>> results, long start) {
+        String decided = approve ? "approved" : "rejected";
+        long succeeded = results.stream().filter(result -> decided.equals(result.get("outcome"))).count();
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Bulk {} of {} requests: {} of {} {} in {} ms", approve ? "approval" : "rejection", kind, succeeded, results.size(), decided, elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("requested", results.size());
+        response.put(decided, succeeded);
+        response.put("unchanged", results.size() - succeeded);
+        response.put("elapsed_ms", elapsed);
+        response.put("results", results);
+        return response;
+    }
+
+    private static final class Closed {
+        private final String status;
+        private final Long version;
+
+        Closed(String status, Long version) {
+            this.status = status;
+            this.version = version;
+        }
+    }
+}
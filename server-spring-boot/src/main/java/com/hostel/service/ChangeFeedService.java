@@ -0,0 +1,211 @@
+package com.hostel.service;
+
+import com.hostel.model.Bed;
+import com.hostel.model.DeletedRecord;
+import com.hostel.model.PersonalDetailsUpdateRequest;
+import com.hostel.model.Room;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Delta sync: a client passes back the since cursor from its previous call and receives only the
+ * documents inserted, updated or deleted after it, so a poll costs in proportion to the changes rather
+ * than the collection. Upserts are read in (changedAt, _id) order over each collection's changed_at_id
+ * index, and deletes from the tombstones in deleted_records. Without since the feed starts from the
+ * beginning, which doubles as the initial load.
+ *
+ * changedAt is stamped when a document is written, not when a transaction commits, and comes from the
+ * application clock on saves but the server clock on template updates. The cursor therefore never
+ * advances beyond the settle window behind the clock: newer documents are still returned but are sent
+ * again on the next poll, so clients apply changes as idempotent upserts by id. A cursor older than
+ * the tombstone retention may have missed deletes and is rejected; the client reloads by omitting since.
+ */
+@Service
+public class ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    public static final String ROOMS = "rooms";
+    public static final String BEDS = "beds";
+    public static final String STUDENTS = "students";
+    public static final String ROOM_CHANGE_REQUESTS = "room-change-requests";
+    public static final String PERSONAL_DETAILS_UPDATE_REQUESTS = "personal-details-update-requests";
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Feed name -> document type and the condition selecting the documents it covers
+    private static final Map<String, Feed<?>> FEEDS = Map.of(
+        ROOMS, new Feed<>(Room.class, "changedAt", null, Room::getChangedAt, Room::getId),
+        BEDS, new Feed<>(Bed.class, "changedAt", null, Bed::getChangedAt, Bed::getId),
+        STUDENTS, new Feed<>(User.class, "changedAt", Criteria.where("role").is("student"), User::getChangedAt, User::getId),
+        ROOM_CHANGE_REQUESTS, new Feed<>(RoomChangeRequest.class, "changedAt", null, RoomChangeRequest::getChangedAt, RoomChangeRequest::getId),
+        PERSONAL_DETAILS_UPDATE_REQUESTS, new Feed<>(PersonalDetailsUpdateRequest.class, "changedAt", null,
+            PersonalDetailsUpdateRequest::getChangedAt, PersonalDetailsUpdateRequest::getId));
+
+    private final MongoTemplate mongoTemplate;
+
+    private final Duration settleWindow;
+
+    private final Duration tombstoneRetention;
+
+    public ChangeFeedService(MongoTemplate mongoTemplate,
+                             @Value("${app.sync.settle-window:5s}") Duration settleWindow,
+                             @Value("${app.sync.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.mongoTemplate = mongoTemplate;
+        this.settleWindow = settleWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public Map<String, Object> getChanges(String feedName, String since, int limit) {
+        Feed<?> feed = FEEDS.get(feedName);
+        if (feed == null) {
+            throw new RuntimeException("Unknown change feed: " + feedName + ", expected one of " + FEEDS.keySet());
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Cursor cursor = since == null || since.isBlank() ? Cursor.START : Cursor.decode(since);
+
+        // Dates are stored with millisecond precision
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        if (cursor.deleted.at != null && cursor.deleted.at.isBefore(now.minus(tombstoneRetention))) {
+            throw new CursorExpiredException("The since cursor is older than the " + tombstoneRetention.toDays()
+                + " day tombstone retention; reload without since");
+        }
+        LocalDateTime settled = now.minus(settleWindow);
+
+        Slice<?> changes = read(feed, cursor.changes, settled, pageSize);
+        Slice<DeletedRecord> deleted = read(new Feed<>(DeletedRecord.class, "deletedAt", Criteria.where("entityType").is(feedName),
+            DeletedRecord::getDeletedAt, DeletedRecord::getId), cursor.deleted, settled, pageSize);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("changes", changes.items);
+        response.put("deleted", deleted.items.stream().map(DeletedRecord::getEntityId).collect(Collectors.toList()));
+        response.put("next_since", new Cursor(changes.next, deleted.next).encode());
+        response.put("has_more", changes.hasMore || deleted.hasMore);
+        return response;
+    }
+
+    // Written right after the delete; without transactions a crash in between leaves the record in clients until they reload
+    public void recordDeleted(String feedName, Collection<String> ids) {
+        if (!ids.isEmpty()) {
+            LocalDateTime now = LocalDateTime.now();
+            mongoTemplate.insertAll(ids.stream()
+                .map(id -> new DeletedRecord(feedName, id, now))
+                .collect(Collectors.toList()));
+        }
+    }
+
+    @Scheduled(initialDelayString = "${app.sync.prune-ms:3600000}",
+               fixedDelayString = "${app.sync.prune-ms:3600000}")
+    public void pruneTombstones() {
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("deletedAt").lt(LocalDateTime.now().minus(tombstoneRetention))),
+            DeletedRecord.class).getDeletedCount();
+        if (removed > 0) {
+            logger.info("Pruned {} change feed tombstones older than {}", removed, tombstoneRetention);
+        }
+    }
+
+    // Settled documents advance the cursor; once they run out, documents still inside the settle window
+    // fill the rest of the page and the cursor stops at the settle line
+    private <T> Slice<T> read(Feed<T> feed, Position after, LocalDateTime settled, int pageSize) {
+        List<T> rows = fetch(feed, after, settled, pageSize + 1);
+        if (rows.size() > pageSize) {
+            List<T> items = new ArrayList<>(rows.subList(0, pageSize));
+            T last = items.get(pageSize - 1);
+            return new Slice<>(items, new Position(feed.changedAt.apply(last), feed.id.apply(last)), true);
+        }
+        List<T> items = new ArrayList<>(rows);
+        // A cursor already past the settle line, e.g. after the clock stepped back, stays put
+        Position settleLine = after.at != null && after.at.isAfter(settled) ? after : new Position(settled, null);
+        if (rows.size() < pageSize) {
+            items.addAll(fetch(feed, settleLine, null, pageSize - rows.size()));
+        }
+        return new Slice<>(items, settleLine, false);
+    }
+
+    private <T> List<T> fetch(Feed<T> feed, Position after, LocalDateTime until, int maxResults) {
+        List<Criteria> conditions = new ArrayList<>();
+        if (feed.filter != null) {
+            conditions.add(feed.filter);
+        }
+        if (after.at != null) {
+            conditions.add(after.id == null ? Criteria.where(feed.timeField).gt(after.at)
+                : new Criteria().orOperator(Criteria.where(feed.timeField).gt(after.at),
+                    Criteria.where(feed.timeField).is(after.at).and("_id").gt(after.id)));
+        }
+        if (until != null) {
+            conditions.add(Criteria.where(feed.timeField).lte(until));
+        }
+        Query query = new Query(conditions.isEmpty() ? new Criteria() : new Criteria().andOperator(conditions))
+            .with(Sort.by(feed.timeField, "_id"))
+            .limit(maxResults);
+        return mongoTemplate.find(query, feed.type);
+    }
+
+    public static class CursorExpiredException extends RuntimeException {
+        public CursorExpiredException(String message) {
+            super(message);
+        }
+    }
+
+    private record Feed<T>(Class<T> type, String timeField, Criteria filter,
+                           Function<T, LocalDateTime> changedAt, Function<T, String> id) {}
+
+    // A null at means from the beginning; a null id means everything stamped at exactly at was seen
+    private record Position(LocalDateTime at, String id) {}
+
+    private record Slice<T>(List<T> items, Position next, boolean hasMore) {}
+
+    // Opaque to clients: the read positions of the upsert and tombstone streams, base64url encoded
+    private record Cursor(Position changes, Position deleted) {
+
+        static final Cursor START = new Cursor(new Position(null, null), new Position(null, null));
+
+        static Cursor decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|", -1);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("expected 4 fields");
+                }
+                return new Cursor(position(parts[0], parts[1]), position(parts[2], parts[3]));
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                throw new RuntimeException("Invalid since cursor");
+            }
+        }
+
+        String encode() {
+            String raw = String.join("|", text(changes.at), text(changes.id), text(deleted.at), text(deleted.id));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static Position position(String at, String id) {
+            return new Position(at.isEmpty() ? null : LocalDateTime.parse(at), id.isEmpty() ? null : id);
+        }
+
+        private static String text(Object value) {
+            return value == null ? "" : value.toString();
+        }
+    }
+}
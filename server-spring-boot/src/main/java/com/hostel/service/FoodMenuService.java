@@ -1,5 +1,8 @@
 package com.hostel.service;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.hostel.cache.HostelCache;
+import com.hostel.cache.ResourceVersions;
 import com.hostel.model.FoodMenu;
 import com.hostel.repository.FoodMenuRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,67 +13,112 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Serves the weekly menu and its per-day and per-meal views from the food-menu cache. The menu
+ * changes about once a week, so each view is queried and sorted once and kept until a create,
+ * update or delete evicts the cache, on every replica when the Redis tier is enabled, and bumps the
+ * menu version that the controller's ETags are built from.
+ */
 @Service
 public class FoodMenuService {
-    
+
     @Autowired
     private FoodMenuRepository foodMenuRepository;
-    
+
+    @Autowired
+    private HostelCache hostelCache;
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
     private static final List<String> DAY_ORDER = Arrays.asList(
         "Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"
     );
-    
+
     private static final List<String> MEAL_ORDER = Arrays.asList(
         "breakfast", "lunch", "dinner"
     );
-    
+
+    private static final String WEEKLY = "weekly";
+
+    private static final String DAY_PREFIX = "day:";
+
+    private static final String MEAL_PREFIX = "meal:";
+
+    private static final TypeReference<List<FoodMenu>> MENU_ITEMS = new TypeReference<>() {};
+
     public List<FoodMenu> getFoodMenu() {
-        List<FoodMenu> menuItems = foodMenuRepository.findAll();
-        
-        // Sort by day of week and meal type
-        return menuItems.stream()
-            .sorted(Comparator
-                .comparing((FoodMenu item) -> DAY_ORDER.indexOf(item.getDayOfWeek()))
-                .thenComparing(item -> MEAL_ORDER.indexOf(item.getMealType())))
-            .collect(Collectors.toList());
+        return cachedView(WEEKLY);
     }
-    
+
     public FoodMenu createFoodMenuItem(String mealType, String dayOfWeek, String items) {
         FoodMenu foodMenu = new FoodMenu(mealType, dayOfWeek, items);
-        return foodMenuRepository.save(foodMenu);
+        FoodMenu saved = foodMenuRepository.save(foodMenu);
+        menuChanged();
+        return saved;
     }
-    
+
     public FoodMenu updateFoodMenuItem(String id, String mealType, String dayOfWeek, String items) {
         FoodMenu foodMenu = foodMenuRepository.findById(id)
             .orElseThrow(() -> new RuntimeException("Food menu item not found"));
-        
+
         foodMenu.setMealType(mealType);
         foodMenu.setDayOfWeek(dayOfWeek);
         foodMenu.setItems(items);
-        
-        return foodMenuRepository.save(foodMenu);
+
+        FoodMenu saved = foodMenuRepository.save(foodMenu);
+        menuChanged();
+        return saved;
     }
-    
+
     public void deleteFoodMenuItem(String id) {
         if (!foodMenuRepository.existsById(id)) {
             throw new RuntimeException("Food menu item not found");
         }
         foodMenuRepository.deleteById(id);
+        menuChanged();
     }
-    
+
     public List<FoodMenu> getFoodMenuByDay(String dayOfWeek) {
-        List<FoodMenu> menuItems = foodMenuRepository.findByDayOfWeek(dayOfWeek);
-        
-        return menuItems.stream()
-            .sorted(Comparator.comparing(item -> MEAL_ORDER.indexOf(item.getMealType())))
-            .collect(Collectors.toList());
+        return cachedView(DAY_PREFIX + dayOfWeek);
     }
-    
+
     public List<FoodMenu> getFoodMenuByMealType(String mealType) {
-        List<FoodMenu> menuItems = foodMenuRepository.findByMealType(mealType);
-        
-        return menuItems.stream()
-            .sorted(Comparator.comparing(item -> DAY_ORDER.indexOf(item.getDayOfWeek())))
-            .collect(Collectors.toList());
+        return cachedView(MEAL_PREFIX + mealType);
+    }
+
+    public String getMenuEtag() {
+        return resourceVersions.etag(ResourceVersions.MENU);
+    }
+
+    // Evict before bumping: a reader that sees the new version can only load the new menu
+    private void menuChanged() {
+        hostelCache.evictAll(HostelCache.FOOD_MENU);
+        resourceVersions.bumpAfterCommit(ResourceVersions.MENU);
+    }
+
+    private List<FoodMenu> cachedView(String key) {
+        return hostelCache.get(HostelCache.FOOD_MENU, key, MENU_ITEMS, () -> loadView(key));
+    }
+
+    private List<FoodMenu> loadView(String key) {
+        List<FoodMenu> sorted;
+        if (key.startsWith(DAY_PREFIX)) {
+            sorted = foodMenuRepository.findByDayOfWeek(key.substring(DAY_PREFIX.length())).stream()
+                .sorted(Comparator.comparing(item -> MEAL_ORDER.indexOf(item.getMealType())))
+                .collect(Collectors.toList());
+        } else if (key.startsWith(MEAL_PREFIX)) {
+            sorted = foodMenuRepository.findByMealType(key.substring(MEAL_PREFIX.length())).stream()
+                .sorted(Comparator.comparing(item -> DAY_ORDER.indexOf(item.getDayOfWeek())))
+                .collect(Collectors.toList());
+        } else {
+            // Sort by day of week and meal type
+            sorted = foodMenuRepository.findAll().stream()
+                .sorted(Comparator
+                    .comparing((FoodMenu item) -> DAY_ORDER.indexOf(item.getDayOfWeek()))
+                    .thenComparing(item -> MEAL_ORDER.indexOf(item.getMealType())))
+                .collect(Collectors.toList());
+        }
+        return List.copyOf(sorted);
     }
-} 
\ No newline at end of file
+}
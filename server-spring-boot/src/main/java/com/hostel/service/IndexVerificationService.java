@@ -0,0 +1,69 @@
+package com.hostel.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checks at startup that the secondary indexes the hot queries rely on exist, so a deployment
+ * running with auto-index-creation off (or with a failed index build) fails the boot instead of
+ * degrading to collection scans.
+ */
+@Service
+public class IndexVerificationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexVerificationService.class);
+    
+    private static final Map<String, List<String>> EXPECTED_INDEXES = new LinkedHashMap<>();
+    
+    static {
+        EXPECTED_INDEXES.put("rooms", List.of("changed_at_id"));
+        EXPECTED_INDEXES.put("beds", List.of("student_id_unique", "room_bed_number", "room_status", "changed_at_id"));
+        EXPECTED_INDEXES.put("users", List.of("role_stream_branch_id", "role_stream_id", "role_branch_id", "role_changed_at_id"));
+        EXPECTED_INDEXES.put("room_change_requests", List.of("status_id", "student_status", "changed_at_id"));
+        EXPECTED_INDEXES.put("personal_details_update_requests", List.of("status_id", "student_status", "changed_at_id"));
+        EXPECTED_INDEXES.put("deleted_records", List.of("entity_type_deleted_at_id"));
+    }
+    
+    private final MongoTemplate mongoTemplate;
+    
+    private final boolean enabled;
+
+    public IndexVerificationService(MongoTemplate mongoTemplate, @Value("${app.index-verification.enabled:true}") boolean enabled) {
+        this.mongoTemplate = mongoTemplate;
+        this.enabled = enabled;
+    }
+
+    public void verifyIndexes() {
+        if (!enabled) {
+            logger.info("Index verification disabled");
+            return;
+        }
+        
+        List<String> missing = new ArrayList<>();
+        EXPECTED_INDEXES.forEach((collection, indexes) -> {
+            Set<String> present = mongoTemplate.indexOps(collection).getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .collect(Collectors.toSet());
+            indexes.stream()
+                .filter(index -> !present.contains(index))
+                .map(index -> collection + "." + index)
+                .forEach(missing::add);
+        });
+        
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("Missing database indexes: " + String.join(", ", missing));
+        }
+        logger.info("Verified {} expected indexes", EXPECTED_INDEXES.values().stream().mapToInt(List::size).sum());
+    }
+}
@@ -1,24 +1,37 @@
 package com.hostel.service;
 
-import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hostel.dto.UserLoginView;
 import com.hostel.model.*;
 import com.hostel.repository.*;
+import com.mongodb.MongoBulkWriteException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ClassPathResource;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/**
+ * Seeds the database from database.json. The file is read with a streaming parser one array
+ * element at a time and written with one insert per batch, so memory use does not grow with
+ * the dump size. Documents keep the ids from the dump, so beds and requests reference users
+ * and rooms without any remapping.
+ */
 @Service
 public class JsonDataLoaderService {
 
@@ -30,8 +43,8 @@ public class JsonDataLoaderService {
     private final FoodMenuRepository foodMenuRepository;
     private final RoomChangeRequestRepository roomChangeRequestRepository;
     private final PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository;
-    private final PasswordEncoder passwordEncoder;
     private final ObjectMapper objectMapper;
+    private final int batchSize;
 
     public JsonDataLoaderService(
             UserRepository userRepository,
@@ -40,14 +53,14 @@ public class JsonDataLoaderService {
             FoodMenuRepository foodMenuRepository,
             RoomChangeRequestRepository roomChangeRequestRepository,
             PersonalDetailsUpdateRequestRepository personalDetailsUpdateRequestRepository,
-            PasswordEncoder passwordEncoder) {
+            @Value("${app.data-loader.batch-size:1000}") int batchSize) {
         this.userRepository = userRepository;
         this.roomRepository = roomRepository;
         this.bedRepository = bedRepository;
         this.foodMenuRepository = foodMenuRepository;
         this.roomChangeRequestRepository = roomChangeRequestRepository;
         this.personalDetailsUpdateRequestRepository = personalDetailsUpdateRequestRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.batchSize = batchSize;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
     }
@@ -61,243 +74,305 @@ public class JsonDataLoaderService {
             }
 
             logger.info("📊 Loading database from JSON file...");
-            
-            JsonNode rootNode = objectMapper.readTree(resource.getInputStream());
-            
-            // Load data in order: users, rooms, beds, food_menu, requests
-            loadUsers(rootNode.get("users"));
-            loadRooms(rootNode.get("rooms"));
-            loadBeds(rootNode.get("beds"));
-            loadFoodMenu(rootNode.get("food_menu"));
-            loadRoomChangeRequests(rootNode.get("room_change_requests"));
-            loadPersonalDetailsUpdateRequests(rootNode.get("personal_details_update_requests"));
-            
+            long start = System.currentTimeMillis();
+
+            try (InputStream inputStream = resource.getInputStream();
+                 JsonParser parser = objectMapper.getFactory().createParser(inputStream)) {
+                if (parser.nextToken() != JsonToken.START_OBJECT) {
+                    throw new IOException("database.json must contain a JSON object");
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String section = parser.getCurrentName();
+                    if (parser.nextToken() != JsonToken.START_ARRAY) {
+                        parser.skipChildren();
+                        continue;
+                    }
+                    switch (section) {
+                        case "users" -> loadUsers(parser);
+                        case "rooms" -> loadRooms(parser);
+                        case "beds" -> loadBeds(parser);
+                        case "food_menu" -> loadFoodMenu(parser);
+                        case "room_change_requests" -> loadRoomChangeRequests(parser);
+                        case "personal_details_update_requests" -> loadPersonalDetailsUpdateRequests(parser);
+                        default -> parser.skipChildren();
+                    }
+                }
+            }
+
+            logger.info("   JSON load finished in {} ms", System.currentTimeMillis() - start);
             displayStatistics();
-            
+
         } catch (IOException e) {
             logger.error("❌ Error loading data from JSON: {}", e.getMessage(), e);
         }
     }
 
-    private void loadUsers(JsonNode usersNode) {
-        if (usersNode == null || !usersNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode userNode : usersNode) {
-            try {
-                User user = new User();
-                user.setId(userNode.get("id").asText());
-                user.setUsername(userNode.get("username").asText());
-                
-                // Check if user already exists
-                if (userRepository.findByUsername(user.getUsername()).isPresent()) {
-                    continue;
-                }
-                
-                user.setPassword(userNode.get("password").asText());
-                user.setRole(userNode.get("role").asText());
-                user.setFullName(userNode.get("full_name").asText());
-                user.setEmail(userNode.get("email").asText());
-                user.setPhone(userNode.get("phone").asText());
-                
-                if (userNode.has("date_of_birth") && !userNode.get("date_of_birth").isNull()) {
-                    user.setDateOfBirth(LocalDate.parse(userNode.get("date_of_birth").asText()));
-                }
-                if (userNode.has("gender")) user.setGender(userNode.get("gender").asText());
-                if (userNode.has("aadhaar_id")) user.setAadhaarId(userNode.get("aadhaar_id").asText());
-                if (userNode.has("roll_no")) user.setRollNo(userNode.get("roll_no").asText());
-                if (userNode.has("stream")) user.setStream(userNode.get("stream").asText());
-                if (userNode.has("branch")) user.setBranch(userNode.get("branch").asText());
-                if (userNode.has("address_line1")) user.setAddressLine1(userNode.get("address_line1").asText());
-                if (userNode.has("address_line2")) user.setAddressLine2(userNode.get("address_line2").asText());
-                if (userNode.has("city")) user.setCity(userNode.get("city").asText());
-                if (userNode.has("state")) user.setState(userNode.get("state").asText());
-                if (userNode.has("postal_code")) user.setPostalCode(userNode.get("postal_code").asText());
-                if (userNode.has("guardian_name")) user.setGuardianName(userNode.get("guardian_name").asText());
-                if (userNode.has("guardian_phone")) user.setGuardianPhone(userNode.get("guardian_phone").asText());
-                if (userNode.has("guardian_address")) user.setGuardianAddress(userNode.get("guardian_address").asText());
-                if (userNode.has("first_login")) user.setFirstLogin(userNode.get("first_login").asBoolean());
-                if (userNode.has("created_at")) {
-                    user.setCreatedAt(LocalDateTime.parse(userNode.get("created_at").asText()));
-                }
-                
-                userRepository.save(user);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.error("Error loading user: {}", e.getMessage());
+    private void loadUsers(JsonParser parser) throws IOException {
+        // One query for every existing username instead of a lookup per user
+        Set<String> seenUsernames = new HashSet<>();
+        for (UserLoginView view : userRepository.findAllProjectedBy()) {
+            seenUsernames.add(view.getUsername());
+        }
+
+        EntityBatch<User> batch = new EntityBatch<>("users", userRepository::insert);
+        forEachElement(parser, "user", userNode -> {
+            if (seenUsernames.add(userNode.get("username").asText())) {
+                batch.add(toUser(userNode));
             }
+        });
+        batch.flush();
+        logger.info("   - Users: {} loaded", batch.loaded);
+    }
+
+    private void loadRooms(JsonParser parser) throws IOException {
+        Set<String> seenRoomNumbers = new HashSet<>();
+        for (Room room : roomRepository.findAll()) {
+            seenRoomNumbers.add(room.getRoomNumber());
         }
-        logger.info("   - Users: {} loaded", loaded);
+
+        EntityBatch<Room> batch = new EntityBatch<>("rooms", roomRepository::insert);
+        forEachElement(parser, "room", roomNode -> {
+            String roomNumber = roomNode.get("room_number").asText();
+            if (!seenRoomNumbers.add(roomNumber)) {
+                return;
+            }
+
+            Room room = new Room();
+            room.setId(text(roomNode, "id"));
+            room.setRoomNumber(roomNumber);
+            room.setFloor(roomNode.get("floor").asInt());
+            room.setCapacity(roomNode.get("capacity").asInt());
+            room.setOccupiedBeds(roomNode.get("occupied_beds").asInt());
+            room.setRoomType(roomNode.get("room_type").asText());
+            if (roomNode.hasNonNull("created_at")) {
+                room.setCreatedAt(LocalDateTime.parse(roomNode.get("created_at").asText()));
+            }
+            batch.add(room);
+        });
+        batch.flush();
+        logger.info("   - Rooms: {} loaded", batch.loaded);
     }
 
-    private void loadRooms(JsonNode roomsNode) {
-        if (roomsNode == null || !roomsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode roomNode : roomsNode) {
-            try {
-                Room room = new Room();
-                room.setId(roomNode.get("id").asText());
-                room.setRoomNumber(roomNode.get("room_number").asText());
-                
-                // Check if room already exists
-                if (roomRepository.findByRoomNumber(room.getRoomNumber()).isPresent()) {
-                    continue;
-                }
-                
-                room.setFloor(roomNode.get("floor").asInt());
-                room.setCapacity(roomNode.get("capacity").asInt());
-                room.setOccupiedBeds(roomNode.get("occupied_beds").asInt());
-                room.setRoomType(roomNode.get("room_type").asText());
-                if (roomNode.has("created_at")) {
-                    room.setCreatedAt(LocalDateTime.parse(roomNode.get("created_at").asText()));
-                }
-                
-                roomRepository.save(room);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading room: {}", e.getMessage());
+    private void loadBeds(JsonParser parser) throws IOException {
+        EntityBatch<Bed> batch = new EntityBatch<>("beds", bedRepository::insert);
+        forEachElement(parser, "bed", bedNode -> {
+            Bed bed = new Bed();
+            bed.setId(text(bedNode, "id"));
+            bed.setRoomId(bedNode.get("room_id").asText());
+            bed.setBedNumber(bedNode.get("bed_number").asInt());
+            bed.setStudentId(text(bedNode, "student_id"));
+            bed.setStatus(bedNode.get("status").asText());
+            batch.add(bed);
+        });
+        batch.flush();
+        logger.info("   - Beds: {} loaded", batch.loaded);
+    }
+
+    private void loadFoodMenu(JsonParser parser) throws IOException {
+        EntityBatch<FoodMenu> batch = new EntityBatch<>("food menu", foodMenuRepository::insert);
+        forEachElement(parser, "food menu", menuNode -> {
+            FoodMenu foodMenu = new FoodMenu();
+            foodMenu.setId(text(menuNode, "id"));
+            foodMenu.setMealType(menuNode.get("meal_type").asText());
+            foodMenu.setDayOfWeek(menuNode.get("day_of_week").asText());
+            foodMenu.setItems(menuNode.get("items").asText());
+            if (menuNode.hasNonNull("created_at")) {
+                foodMenu.setCreatedAt(LocalDateTime.parse(menuNode.get("created_at").asText()));
             }
-        }
-        logger.info("   - Rooms: {} loaded", loaded);
+            batch.add(foodMenu);
+        });
+        batch.flush();
+        logger.info("   - Food Menu Items: {} loaded", batch.loaded);
     }
 
-    private void loadBeds(JsonNode bedsNode) {
-        if (bedsNode == null || !bedsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode bedNode : bedsNode) {
-            try {
-                Bed bed = new Bed();
-                bed.setId(bedNode.get("id").asText());
-                bed.setRoomId(bedNode.get("room_id").asText());
-                bed.setBedNumber(bedNode.get("bed_number").asInt());
-                
-                if (bedNode.has("student_id") && !bedNode.get("student_id").isNull()) {
-                    bed.setStudentId(bedNode.get("student_id").asText());
-                }
-                bed.setStatus(bedNode.get("status").asText());
-                
-                bedRepository.save(bed);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading bed: {}", e.getMessage());
+    private void loadRoomChangeRequests(JsonParser parser) throws IOException {
+        EntityBatch<RoomChangeRequest> batch = new EntityBatch<>("room change requests", roomChangeRequestRepository::insert);
+        forEachElement(parser, "room change request", requestNode -> {
+            RoomChangeRequest request = new RoomChangeRequest();
+            request.setId(text(requestNode, "id"));
+            request.setStudentId(requestNode.get("student_id").asText());
+            request.setCurrentRoomId(text(requestNode, "current_room_id"));
+            request.setRequestedRoomId(requestNode.get("requested_room_id").asText());
+            request.setRequestedBedNumber(requestNode.get("requested_bed_number").asInt());
+            request.setReason(requestNode.get("reason").asText());
+            request.setStatus(requestNode.get("status").asText());
+
+            if (requestNode.hasNonNull("requested_at")) {
+                request.setRequestedAt(LocalDateTime.parse(requestNode.get("requested_at").asText()));
             }
-        }
-        logger.info("   - Beds: {} loaded", loaded);
+            if (requestNode.hasNonNull("processed_at")) {
+                request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
+            }
+            if (requestNode.hasNonNull("processed_by")) {
+                request.setProcessedBy(requestNode.get("processed_by").asText());
+            }
+            batch.add(request);
+        });
+        batch.flush();
+        logger.info("   - Room Change Requests: {} loaded", batch.loaded);
     }
 
-    private void loadFoodMenu(JsonNode foodMenuNode) {
-        if (foodMenuNode == null || !foodMenuNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode menuNode : foodMenuNode) {
-            try {
-                FoodMenu foodMenu = new FoodMenu();
-                foodMenu.setId(menuNode.get("id").asText());
-                foodMenu.setMealType(menuNode.get("meal_type").asText());
-                foodMenu.setDayOfWeek(menuNode.get("day_of_week").asText());
-                foodMenu.setItems(menuNode.get("items").asText());
-                if (menuNode.has("created_at")) {
-                    foodMenu.setCreatedAt(LocalDateTime.parse(menuNode.get("created_at").asText()));
-                }
-                
-                foodMenuRepository.save(foodMenu);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading food menu: {}", e.getMessage());
+    private void loadPersonalDetailsUpdateRequests(JsonParser parser) throws IOException {
+        EntityBatch<PersonalDetailsUpdateRequest> batch = new EntityBatch<>("personal details requests",
+            personalDetailsUpdateRequestRepository::insert);
+        forEachElement(parser, "personal details request", requestNode -> {
+            PersonalDetailsUpdateRequest request = new PersonalDetailsUpdateRequest();
+            request.setId(text(requestNode, "id"));
+            request.setStudentId(requestNode.get("student_id").asText());
+            request.setStudentName(requestNode.get("student_name").asText());
+            request.setStudentRollNo(requestNode.get("student_roll_no").asText());
+
+            if (requestNode.has("phone")) request.setPhone(requestNode.get("phone").asText());
+            if (requestNode.has("address_line1")) request.setAddressLine1(requestNode.get("address_line1").asText());
+            if (requestNode.has("address_line2")) request.setAddressLine2(requestNode.get("address_line2").asText());
+            if (requestNode.has("city")) request.setCity(requestNode.get("city").asText());
+            if (requestNode.has("state")) request.setState(requestNode.get("state").asText());
+            if (requestNode.has("postal_code")) request.setPostalCode(requestNode.get("postal_code").asText());
+            if (requestNode.has("guardian_name")) request.setGuardianName(requestNode.get("guardian_name").asText());
+            if (requestNode.has("guardian_phone")) request.setGuardianPhone(requestNode.get("guardian_phone").asText());
+            if (requestNode.has("guardian_address")) request.setGuardianAddress(requestNode.get("guardian_address").asText());
+
+            request.setStatus(requestNode.get("status").asText());
+
+            if (requestNode.hasNonNull("warden_comments")) {
+                request.setWardenComments(requestNode.get("warden_comments").asText());
+            }
+            if (requestNode.hasNonNull("processed_at")) {
+                request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
+            }
+            if (requestNode.hasNonNull("processed_by")) {
+                request.setProcessedBy(requestNode.get("processed_by").asText());
+            }
+            if (requestNode.hasNonNull("created_at")) {
+                request.setCreatedAt(LocalDateTime.parse(requestNode.get("created_at").asText()));
+            }
+            if (requestNode.hasNonNull("updated_at")) {
+                request.setUpdatedAt(LocalDateTime.parse(requestNode.get("updated_at").asText()));
             }
+            batch.add(request);
+        });
+        batch.flush();
+        logger.info("   - Personal Details Requests: {} loaded", batch.loaded);
+    }
+
+    private static User toUser(JsonNode userNode) {
+        User user = new User();
+        user.setId(text(userNode, "id"));
+        user.setUsername(userNode.get("username").asText());
+        user.setPassword(userNode.get("password").asText());
+        user.setRole(userNode.get("role").asText());
+        user.setFullName(userNode.get("full_name").asText());
+        user.setEmail(userNode.get("email").asText());
+        user.setPhone(userNode.get("phone").asText());
+
+        if (userNode.hasNonNull("date_of_birth")) {
+            user.setDateOfBirth(LocalDate.parse(userNode.get("date_of_birth").asText()));
+        }
+        if (userNode.has("gender")) user.setGender(userNode.get("gender").asText());
+        if (userNode.has("aadhaar_id")) user.setAadhaarId(userNode.get("aadhaar_id").asText());
+        if (userNode.has("roll_no")) user.setRollNo(userNode.get("roll_no").asText());
+        if (userNode.has("stream")) user.setStream(userNode.get("stream").asText());
+        if (userNode.has("branch")) user.setBranch(userNode.get("branch").asText());
+        if (userNode.has("address_line1")) user.setAddressLine1(userNode.get("address_line1").asText());
+        if (userNode.has("address_line2")) user.setAddressLine2(userNode.get("address_line2").asText());
+        if (userNode.has("city")) user.setCity(userNode.get("city").asText());
+        if (userNode.has("state")) user.setState(userNode.get("state").asText());
+        if (userNode.has("postal_code")) user.setPostalCode(userNode.get("postal_code").asText());
+        if (userNode.has("guardian_name")) user.setGuardianName(userNode.get("guardian_name").asText());
+        if (userNode.has("guardian_phone")) user.setGuardianPhone(userNode.get("guardian_phone").asText());
+        if (userNode.has("guardian_address")) user.setGuardianAddress(userNode.get("guardian_address").asText());
+        if (userNode.has("first_login")) user.setFirstLogin(userNode.get("first_login").asBoolean());
+        if (userNode.hasNonNull("created_at")) {
+            user.setCreatedAt(LocalDateTime.parse(userNode.get("created_at").asText()));
         }
-        logger.info("   - Food Menu Items: {} loaded", loaded);
+        return user;
     }
 
-    private void loadRoomChangeRequests(JsonNode requestsNode) {
-        if (requestsNode == null || !requestsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode requestNode : requestsNode) {
+    // Materialises one array element at a time; a malformed element is logged and skipped
+    private void forEachElement(JsonParser parser, String label, Consumer<JsonNode> handler) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode node = objectMapper.readTree(parser);
             try {
-                RoomChangeRequest request = new RoomChangeRequest();
-                request.setId(requestNode.get("id").asText());
-                request.setStudentId(requestNode.get("student_id").asText());
-                request.setCurrentRoomId(requestNode.get("current_room_id").asText());
-                request.setRequestedRoomId(requestNode.get("requested_room_id").asText());
-                request.setRequestedBedNumber(requestNode.get("requested_bed_number").asInt());
-                request.setReason(requestNode.get("reason").asText());
-                request.setStatus(requestNode.get("status").asText());
-                
-                if (requestNode.has("requested_at")) {
-                    request.setRequestedAt(LocalDateTime.parse(requestNode.get("requested_at").asText()));
-                }
-                if (requestNode.has("processed_at") && !requestNode.get("processed_at").isNull()) {
-                    request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
-                }
-                if (requestNode.has("processed_by") && !requestNode.get("processed_by").isNull()) {
-                    request.setProcessedBy(requestNode.get("processed_by").asText());
-                }
-                
-                roomChangeRequestRepository.save(request);
-                loaded++;
-                
+                handler.accept(node);
             } catch (Exception e) {
-                logger.warn("Error loading room change request: {}", e.getMessage());
+                logger.warn("Error loading {}: {}", label, e.getMessage());
             }
         }
-        logger.info("   - Room Change Requests: {} loaded", loaded);
     }
 
-    private void loadPersonalDetailsUpdateRequests(JsonNode requestsNode) {
-        if (requestsNode == null || !requestsNode.isArray()) return;
-        
-        int loaded = 0;
-        for (JsonNode requestNode : requestsNode) {
-            try {
-                PersonalDetailsUpdateRequest request = new PersonalDetailsUpdateRequest();
-                request.setId(requestNode.get("id").asText());
-                request.setStudentId(requestNode.get("student_id").asText());
-                request.setStudentName(requestNode.get("student_name").asText());
-                request.setStudentRollNo(requestNode.get("student_roll_no").asText());
-                
-                if (requestNode.has("phone")) request.setPhone(requestNode.get("phone").asText());
-                if (requestNode.has("address_line1")) request.setAddressLine1(requestNode.get("address_line1").asText());
-                if (requestNode.has("address_line2")) request.setAddressLine2(requestNode.get("address_line2").asText());
-                if (requestNode.has("city")) request.setCity(requestNode.get("city").asText());
-                if (requestNode.has("state")) request.setState(requestNode.get("state").asText());
-                if (requestNode.has("postal_code")) request.setPostalCode(requestNode.get("postal_code").asText());
-                if (requestNode.has("guardian_name")) request.setGuardianName(requestNode.get("guardian_name").asText());
-                if (requestNode.has("guardian_phone")) request.setGuardianPhone(requestNode.get("guardian_phone").asText());
-                if (requestNode.has("guardian_address")) request.setGuardianAddress(requestNode.get("guardian_address").asText());
-                
-                request.setStatus(requestNode.get("status").asText());
-                
-                if (requestNode.has("warden_comments") && !requestNode.get("warden_comments").isNull()) {
-                    request.setWardenComments(requestNode.get("warden_comments").asText());
-                }
-                if (requestNode.has("processed_at") && !requestNode.get("processed_at").isNull()) {
-                    request.setProcessedAt(LocalDateTime.parse(requestNode.get("processed_at").asText()));
-                }
-                if (requestNode.has("processed_by") && !requestNode.get("processed_by").isNull()) {
-                    request.setProcessedBy(requestNode.get("processed_by").asText());
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Buffers parsed documents and writes them with one insertAll per batch. The insert is ordered
+     * and not transactional: when a document is rejected, the ones before it are already stored, so
+     * only the rejected one is skipped and the rest of the batch is written again.
+     */
+    private final class EntityBatch<T> {
+        private final String label;
+        private final Function<List<T>, List<T>> writer;
+        private final List<T> entities = new ArrayList<>();
+        private int loaded;
+
+        EntityBatch(String label, Function<List<T>, List<T>> writer) {
+            this.label = label;
+            this.writer = writer;
+        }
+
+        void add(T entity) {
+            entities.add(entity);
+            if (entities.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (entities.isEmpty()) {
+                return;
+            }
+            List<T> remaining = entities;
+            while (!remaining.isEmpty()) {
+                try {
+                    loaded += writer.apply(remaining).size();
+                    break;
+                } catch (RuntimeException e) {
+                    int failedAt = firstFailedIndex(e);
+                    if (failedAt < 0) {
+                        logger.warn("Error saving batch of {} {}, retrying one at a time: {}", remaining.size(), label, e.getMessage());
+                        insertEach(remaining);
+                        break;
+                    }
+                    logger.warn("Error saving {}: {}", label, e.getMessage());
+                    loaded += failedAt;
+                    remaining = remaining.subList(failedAt + 1, remaining.size());
                 }
-                if (requestNode.has("created_at")) {
-                    request.setCreatedAt(LocalDateTime.parse(requestNode.get("created_at").asText()));
+            }
+            entities.clear();
+        }
+
+        // No write error to locate the rejected document, e.g. a lost connection
+        private void insertEach(List<T> batch) {
+            for (T entity : batch) {
+                try {
+                    loaded += writer.apply(List.of(entity)).size();
+                } catch (RuntimeException e) {
+                    logger.warn("Error saving {}: {}", label, e.getMessage());
                 }
-                if (requestNode.has("updated_at") && !requestNode.get("updated_at").isNull()) {
-                    request.setUpdatedAt(LocalDateTime.parse(requestNode.get("updated_at").asText()));
+            }
+        }
+
+        // Position in the batch of the first document the server rejected, or -1 if unknown
+        private int firstFailedIndex(RuntimeException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof MongoBulkWriteException bulk && !bulk.getWriteErrors().isEmpty()) {
+                    return bulk.getWriteErrors().get(0).getIndex();
                 }
-                
-                personalDetailsUpdateRequestRepository.save(request);
-                loaded++;
-                
-            } catch (Exception e) {
-                logger.warn("Error loading personal details request: {}", e.getMessage());
             }
+            return -1;
         }
-        logger.info("   - Personal Details Requests: {} loaded", loaded);
     }
 
     private void displayStatistics() {
@@ -325,7 +400,7 @@ public class JsonDataLoaderService {
         userRepository.findByRole("warden").stream().findFirst().ifPresent(warden -> {
             logger.info("🔐 Default Login Credentials:");
             logger.info("   Warden - Username: {}, Password: warden123", warden.getUsername());
-            
+
             List<User> students = userRepository.findByRole("student");
             students.stream().limit(3).forEach(student -> {
                 logger.info("   Student - Username: {}, Password: password123", student.getUsername());
@@ -335,4 +410,4 @@ public class JsonDataLoaderService {
             }
         });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.hostel.service;
+
+import com.hostel.dto.BedStatusCount;
+import com.hostel.model.Room;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Checks every room's occupiedBeds counter against its occupied beds and repairs drift, e.g. from
+ * documents edited by hand, counters written before they were maintained, or a claim and its counter
+ * update split by a crash when transactions are disabled. Rooms are read before the bed
+ * counts and repaired only at the version they were read at, so a bed change committing mid-pass is
+ * never overwritten. A scheduled pass only repairs drift it saw on the previous pass at the same
+ * version, which leaves in-flight changes alone; the startup pass repairs straight away.
+ */
+@Service
+public class OccupancyReconciliationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OccupancyReconciliationService.class);
+
+    private final RoomRepository roomRepository;
+
+    private final BedRepository bedRepository;
+
+    private final MongoTemplate mongoTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    // Room id -> version at which drift was seen on the last scheduled pass
+    private Map<String, Long> suspects = new HashMap<>();
+
+    public OccupancyReconciliationService(RoomRepository roomRepository, BedRepository bedRepository, MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.roomRepository = roomRepository;
+        this.bedRepository = bedRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(initialDelayString = "${app.occupancy.reconcile-ms:600000}",
+               fixedDelayString = "${app.occupancy.reconcile-ms:600000}")
+    public void scheduledReconcile() {
+        reconcile(false);
+    }
+
+    public synchronized Map<String, Object> reconcile(boolean repairImmediately) {
+        long start = System.currentTimeMillis();
+        Iterable<Room> rooms = roomRepository.findAll();
+        Map<String, Integer> occupied = new HashMap<>();
+        for (BedStatusCount count : bedRepository.countGroupedByRoomIdAndStatus()) {
+            if ("occupied".equals(count.getStatus())) {
+                occupied.put(count.getRoomId(), Math.toIntExact(count.getTotal()));
+            }
+        }
+
+        int checked = 0;
+        int drifted = 0;
+        int repaired = 0;
+        Map<String, Long> nextSuspects = new HashMap<>();
+        for (Room room : rooms) {
+            checked++;
+            int actual = occupied.getOrDefault(room.getId(), 0);
+            if (Objects.equals(room.getOccupiedBeds(), actual)) {
+                continue;
+            }
+            drifted++;
+            if (!repairImmediately && !Objects.equals(suspects.get(room.getId()), room.getVersion())) {
+                nextSuspects.put(room.getId(), room.getVersion());
+                continue;
+            }
+            Query query = Query.query(Criteria.where("_id").is(room.getId()).and("version").is(room.getVersion()));
+            if (mongoTemplate.updateFirst(query, new Update().set("occupiedBeds", actual).inc("version", 1).currentDate("changedAt"), Room.class).getModifiedCount() == 1) {
+                repaired++;
+                logger.warn("Room {} occupancy counter drifted: {} recorded, {} occupied beds; repaired", room.getRoomNumber(), room.getOccupiedBeds(), actual);
+            }
+        }
+        suspects = nextSuspects;
+        meterRegistry.counter("hostel.occupancy.drift_repaired").increment(repaired);
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("rooms_checked", checked);
+        report.put("drifted", drifted);
+        report.put("repaired", repaired);
+        report.put("elapsed_ms", System.currentTimeMillis() - start);
+        if (drifted > 0) {
+            logger.info("Occupancy reconciliation: {} rooms checked, {} drifted, {} repaired", checked, drifted, repaired);
+        }
+        return report;
+    }
+}
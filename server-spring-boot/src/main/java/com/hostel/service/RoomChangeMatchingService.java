@@ -0,0 +1,217 @@
+package com.hostel.service;
+
+import com.hostel.model.Bed;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.repository.BedRepository;
+import com.hostel.repository.RoomChangeRequestRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Finds pending room changes that can be granted together although each one alone asks for an
+ * occupied bed. Every requester points at the occupant of the bed they want, which gives a graph
+ * with at most one outgoing edge per student: its cycles are swap rings (A wants B's bed, B wants
+ * C's, C wants A's) and the paths ending in a free bed are chains where each move frees the bed the
+ * next one wants. Both are found in one linear pass; contested beds go to the oldest request.
+ * A chain of a single move needs no matching, so it is only approved when the caller asks for it.
+ */
+@Service
+public class RoomChangeMatchingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoomChangeMatchingService.class);
+
+    private static final int FREE = -1;
+
+    private static final int BLOCKED = -2;
+
+    private final RoomChangeRequestRepository roomChangeRequestRepository;
+
+    private final BedRepository bedRepository;
+
+    private final BedAllocationService bedAllocationService;
+
+    public RoomChangeMatchingService(RoomChangeRequestRepository roomChangeRequestRepository, BedRepository bedRepository, BedAllocationService bedAllocationService) {
+        this.roomChangeRequestRepository = roomChangeRequestRepository;
+        this.bedRepository = bedRepository;
+        this.bedAllocationService = bedAllocationService;
+    }
+
+    // Each cycle or chain is applied in its own transaction, so a group gone stale since the read
+    // (a concurrent approval or assignment) fails on its own and the other groups still go through.
+    // A chain of one is just a request for a free bed; those are left to the warden unless asked for
+    public Map<String, Object> matchPendingRequests(boolean dryRun, boolean includeSingleMoves, String processedBy) {
+        long start = System.currentTimeMillis();
+        Matching matching = match(includeSingleMoves);
+        int planned = matching.groups.stream().mapToInt(List::size).sum();
+        int approved = 0;
+        List<Map<String, Object>> groups = new ArrayList<>();
+        for (int i = 0; i < matching.groups.size(); i++) {
+            List<BedAllocationService.Move> group = matching.groups.get(i);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("type", i < matching.cycles ? "cycle" : "chain");
+            entry.put("moves", group.stream().map(BedAllocationService.Move::toMap).collect(Collectors.toList()));
+            if (!dryRun) {
+                try {
+                    bedAllocationService.applyMoves(group, processedBy);
+                    entry.put("outcome", "approved");
+                    approved += group.size();
+                } catch (RuntimeException e) {
+                    entry.put("outcome", "failed");
+                    entry.put("error", e.getMessage());
+                }
+            }
+            groups.add(entry);
+        }
+        long elapsed = System.currentTimeMillis() - start;
+        logger.info("Room change matching{}: {} pending, {} cycles, {} chains, {} of {} moves applied in {} ms",
+            dryRun ? " (dry run)" : "", matching.pending, matching.cycles, matching.groups.size() - matching.cycles, approved, planned, elapsed);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("dry_run", dryRun);
+        response.put("pending_requests", matching.pending);
+        response.put("cycles", matching.cycles);
+        response.put("chains", matching.groups.size() - matching.cycles);
+        response.put("single_moves_skipped", matching.singleMovesSkipped);
+        response.put("approved", approved);
+        response.put("unmatched", matching.pending - planned);
+        response.put("elapsed_ms", elapsed);
+        response.put("groups", groups);
+        return response;
+    }
+
+    private Matching match(boolean includeSingleMoves) {
+        List<RoomChangeRequest> pending = roomChangeRequestRepository.findByStatus("pending");
+        pending.sort(Comparator.comparing(RoomChangeRequest::getRequestedAt, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(RoomChangeRequest::getId));
+
+        Map<String, Bed> bedsByPosition = new HashMap<>();
+        Map<String, Bed> bedsByStudent = new HashMap<>();
+        for (Bed bed : bedRepository.findAll()) {
+            bedsByPosition.put(position(bed.getRoomId(), bed.getBedNumber()), bed);
+            if (bed.getStudentId() != null) {
+                bedsByStudent.put(bed.getStudentId(), bed);
+            }
+        }
+
+        // One node per student, their oldest valid request; later ones wait for the next run
+        List<RoomChangeRequest> nodes = new ArrayList<>();
+        Map<String, Integer> nodeByStudent = new HashMap<>();
+        for (RoomChangeRequest request : pending) {
+            Bed target = bedsByPosition.get(position(request.getRequestedRoomId(), request.getRequestedBedNumber()));
+            if (target == null || nodeByStudent.containsKey(request.getStudentId())
+                    || request.getStudentId().equals(target.getStudentId())) {
+                continue;
+            }
+            nodeByStudent.put(request.getStudentId(), nodes.size());
+            nodes.add(request);
+        }
+
+        int size = nodes.size();
+        int[] next = new int[size];
+        Map<String, List<Integer>> wantedBy = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            RoomChangeRequest request = nodes.get(i);
+            String wanted = position(request.getRequestedRoomId(), request.getRequestedBedNumber());
+            Bed target = bedsByPosition.get(wanted);
+            if ("available".equals(target.getStatus())) {
+                next[i] = FREE;
+            } else {
+                next[i] = target.getStudentId() == null ? BLOCKED : nodeByStudent.getOrDefault(target.getStudentId(), BLOCKED);
+            }
+            // Nodes are in request order, so every list is oldest first
+            wantedBy.computeIfAbsent(wanted, key -> new ArrayList<>()).add(i);
+        }
+
+        Matching matching = new Matching(pending.size());
+        boolean[] matched = new boolean[size];
+
+        // Cycles of the functional graph: walk each unvisited path once; 1 = on the current path, 2 = done
+        byte[] state = new byte[size];
+        List<Integer> path = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            path.clear();
+            int node = i;
+            while (node >= 0 && state[node] == 0) {
+                state[node] = 1;
+                path.add(node);
+                node = next[node];
+            }
+            if (node >= 0 && state[node] == 1) {
+                List<BedAllocationService.Move> cycle = new ArrayList<>();
+                for (int j = path.indexOf(node); j < path.size(); j++) {
+                    cycle.add(move(nodes.get(path.get(j)), bedsByStudent));
+                    matched[path.get(j)] = true;
+                }
+                matching.groups.add(cycle);
+                matching.cycles++;
+            }
+            path.forEach(visited -> state[visited] = 2);
+        }
+
+        // Chains: every free bed goes to its oldest unmatched requester, whose own bed is then free in turn
+        Deque<String> freed = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            String wanted = position(nodes.get(i).getRequestedRoomId(), nodes.get(i).getRequestedBedNumber());
+            if (next[i] == FREE && seen.add(wanted)) {
+                freed.add(wanted);
+            }
+        }
+        while (!freed.isEmpty()) {
+            String root = freed.poll();
+            List<BedAllocationService.Move> chain = new ArrayList<>();
+            String bed = root;
+            while (bed != null) {
+                Integer winner = wantedBy.getOrDefault(bed, List.of()).stream().filter(candidate -> !matched[candidate]).findFirst().orElse(null);
+                if (winner == null) {
+                    break;
+                }
+                matched[winner] = true;
+                RoomChangeRequest request = nodes.get(winner);
+                chain.add(move(request, bedsByStudent));
+                Bed current = bedsByStudent.get(request.getStudentId());
+                bed = current == null ? null : position(current.getRoomId(), current.getBedNumber());
+            }
+            if (chain.size() > 1 || (chain.size() == 1 && includeSingleMoves)) {
+                matching.groups.add(chain);
+            } else if (chain.size() == 1) {
+                matching.singleMovesSkipped++;
+            }
+        }
+        return matching;
+    }
+
+    private static BedAllocationService.Move move(RoomChangeRequest request, Map<String, Bed> bedsByStudent) {
+        return new BedAllocationService.Move(request.getId(), request.getStudentId(), bedsByStudent.get(request.getStudentId()),
+            request.getRequestedRoomId(), request.getRequestedBedNumber());
+    }
+
+    private static String position(String roomId, Integer bedNumber) {
+        return roomId + ":" + bedNumber;
+    }
+
+    private static final class Matching {
+        private final int pending;
+        // Cycles first, then chains
+        private final List<List<BedAllocationService.Move>> groups = new ArrayList<>();
+        private int cycles;
+        private int singleMovesSkipped;
+
+        Matching(int pending) {
+            this.pending = pending;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hostel.service;
+
+import com.hostel.model.Bed;
+import com.hostel.model.PersonalDetailsUpdateRequest;
+import com.hostel.model.Room;
+import com.hostel.model.RoomChangeRequest;
+import com.hostel.model.User;
+import com.mongodb.client.result.UpdateResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Seeds the optimistic-lock version on documents written before the @Version fields existed. A
+ * document without a version is treated as new by the repositories, so saving it after a read
+ * would attempt an insert and fail on the duplicate id. Documents written before change tracking
+ * get a changedAt as well, so the change feed's initial load includes them.
+ */
+@Service
+public class VersionBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VersionBackfillService.class);
+    
+    private static final List<Class<?>> VERSIONED_TYPES = List.of(
+        Bed.class, Room.class, RoomChangeRequest.class, PersonalDetailsUpdateRequest.class);
+    
+    private static final List<Class<?>> TRACKED_TYPES = List.of(
+        Bed.class, Room.class, User.class, RoomChangeRequest.class, PersonalDetailsUpdateRequest.class);
+    
+    private final MongoTemplate mongoTemplate;
+
+    public VersionBackfillService(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    public void backfillVersions() {
+        Query unversioned = new Query(Criteria.where("version").exists(false));
+        for (Class<?> type : VERSIONED_TYPES) {
+            UpdateResult result = mongoTemplate.updateMulti(unversioned, new Update().set("version", 0L), type);
+            if (result.getModifiedCount() > 0) {
+                logger.info("Initialised version on {} {} documents", result.getModifiedCount(), mongoTemplate.getCollectionName(type));
+            }
+        }
+        Query untracked = new Query(Criteria.where("changedAt").exists(false));
+        for (Class<?> type : TRACKED_TYPES) {
+            UpdateResult result = mongoTemplate.updateMulti(untracked, new Update().currentDate("changedAt"), type);
+            if (result.getModifiedCount() > 0) {
+                logger.info("Initialised changedAt on {} {} documents", result.getModifiedCount(), mongoTemplate.getCollectionName(type));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.hostel.util;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Answers a GET from a precomputed strong ETag: a matching If-None-Match gets a 304 before the body
+ * is loaded, anything else gets the body tagged with the ETag. no-cache makes clients revalidate on
+ * every poll. A null ETag, when versions are unavailable, sends the body untagged.
+ */
+public final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    public static ResponseEntity<?> respond(WebRequest webRequest, String etag, Supplier<?> body) {
+        return respond(webRequest, etag, CacheControl.noCache(), body);
+    }
+
+    public static ResponseEntity<?> respond(WebRequest webRequest, String etag, CacheControl cacheControl, Supplier<?> body) {
+        if (etag == null) {
+            return ResponseEntity.ok().cacheControl(cacheControl).body(body.get());
+        }
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(cacheControl)
+            .body(body.get());
+    }
+}